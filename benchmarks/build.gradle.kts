@@ -0,0 +1,24 @@
+plugins {
+    id("me.champeau.jmh") version "0.7.3"
+}
+
+dependencies {
+    jmh(project(":common"))
+    jmh(project(":spigot"))
+    jmh(project(":minestom"))
+
+    jmh("org.purpurmc.purpur:purpur-api:1.20.4-R0.1-SNAPSHOT") {
+        exclude(group = "net.kyori", module = "adventure-api")
+    }
+    jmh("net.minestom:minestom:2026.05.17c-26.1.1")
+    jmh("net.kyori:adventure-api:5.1.1")
+    jmh("org.slf4j:slf4j-api:2.0.16")
+}
+
+jmh {
+    jmhVersion = "1.37"
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    resultFormat = "JSON"
+}
@@ -0,0 +1,35 @@
+package com.jazzkuh.commandlib.benchmarks;
+
+import com.jazzkuh.commandlib.common.AnnotationCommandImpl;
+import com.jazzkuh.commandlib.common.annotations.Completion;
+import com.jazzkuh.commandlib.common.annotations.Subcommand;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+public class BenchmarkCommand implements AnnotationCommandImpl {
+    @Subcommand("zero")
+    public void zero(Object sender) {
+    }
+
+    @Subcommand("two")
+    public void two(Object sender, @Completion(Fixtures.CANDIDATES) String first, int second) {
+    }
+
+    @Subcommand("five")
+    public void five(Object sender, @Completion(Fixtures.CANDIDATES) String first, int second, double third, boolean fourth, long fifth) {
+    }
+
+    @Override
+    public String getCommandName() {
+        return "benchmark";
+    }
+
+    public static Method method(int argumentCount) {
+        return Arrays.stream(BenchmarkCommand.class.getMethods())
+                .filter(method -> method.isAnnotationPresent(Subcommand.class))
+                .filter(method -> method.getParameterCount() == argumentCount + 1)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No benchmark subcommand with " + argumentCount + " arguments"));
+    }
+}
@@ -0,0 +1,53 @@
+package com.jazzkuh.commandlib.benchmarks;
+
+import com.jazzkuh.commandlib.common.AnnotationCommandExecutor;
+import com.jazzkuh.commandlib.common.AnnotationCommandParser;
+import com.jazzkuh.commandlib.common.AnnotationCommandSender;
+import com.jazzkuh.commandlib.common.AnnotationSubCommand;
+import com.jazzkuh.commandlib.common.exception.CommandException;
+import com.jazzkuh.commandlib.common.resolvers.CompletionResolver;
+import com.jazzkuh.commandlib.common.resolvers.Resolvers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExecutorBenchmark {
+    @Param({"0", "2", "5"})
+    public int argumentCount;
+
+    @Param({"10", "100", "1000"})
+    public int candidateCount;
+
+    private AnnotationCommandExecutor<Object> executor;
+    private AnnotationCommandSender<Object> sender;
+    private String[] executeArguments;
+    private String[] completeArguments;
+
+    @Setup
+    public void setup() {
+        List<String> candidates = Fixtures.candidates(this.candidateCount);
+        Resolvers.register((CompletionResolver<Object>) (sender, arg) -> candidates, Fixtures.CANDIDATES);
+
+        BenchmarkCommand command = new BenchmarkCommand();
+        AnnotationSubCommand subCommand = AnnotationCommandParser.parse(command, BenchmarkCommand.method(this.argumentCount));
+
+        this.executor = new AnnotationCommandExecutor<>(subCommand, command);
+        this.sender = new AnnotationCommandSender<>(new Object());
+        this.executeArguments = Fixtures.arguments(subCommand.getName(), this.argumentCount);
+        this.completeArguments = new String[]{subCommand.getName(), "candidate1"};
+    }
+
+    @Benchmark
+    public void execute() throws CommandException {
+        this.executor.execute(this.sender, this.executeArguments);
+    }
+
+    @Benchmark
+    public List<String> complete() {
+        return this.executor.complete(this.sender, this.completeArguments);
+    }
+}
@@ -0,0 +1,28 @@
+package com.jazzkuh.commandlib.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class Fixtures {
+    public static final String CANDIDATES = "benchmark_candidates";
+
+    private Fixtures() {
+    }
+
+    public static List<String> candidates(int count) {
+        List<String> candidates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            candidates.add("candidate" + i);
+        }
+
+        return List.copyOf(candidates);
+    }
+
+    public static String[] arguments(String subCommand, int argumentCount) {
+        String[] values = {"value", "42", "1.5", "true", "9"};
+        String[] arguments = new String[argumentCount + 1];
+        arguments[0] = subCommand;
+        System.arraycopy(values, 0, arguments, 1, argumentCount);
+        return arguments;
+    }
+}
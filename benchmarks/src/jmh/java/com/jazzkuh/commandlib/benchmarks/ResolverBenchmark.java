@@ -0,0 +1,80 @@
+package com.jazzkuh.commandlib.benchmarks;
+
+import com.jazzkuh.commandlib.common.resolvers.ContextResolver;
+import com.jazzkuh.commandlib.common.resolvers.Resolvers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResolverBenchmark {
+    private static final Class<?>[] LOOKUP_TYPES = {String.class, int.class, Integer.class, double.class, UUID.class, String[].class, Thread.State.class};
+
+    @Param({"true", "false"})
+    public boolean valid;
+
+    private ContextResolver<?> integerResolver;
+    private ContextResolver<?> longResolver;
+    private ContextResolver<?> doubleResolver;
+    private ContextResolver<?> floatResolver;
+    private ContextResolver<?> booleanResolver;
+    private ContextResolver<?> uuidResolver;
+    private String number;
+    private String decimal;
+    private String uuid;
+
+    @Setup
+    public void setup() {
+        this.integerResolver = Resolvers.context(int.class);
+        this.longResolver = Resolvers.context(long.class);
+        this.doubleResolver = Resolvers.context(double.class);
+        this.floatResolver = Resolvers.context(float.class);
+        this.booleanResolver = Resolvers.context(boolean.class);
+        this.uuidResolver = Resolvers.context(UUID.class);
+
+        this.number = this.valid ? "123456" : "12a456";
+        this.decimal = this.valid ? "1234.56" : "1234,56";
+        this.uuid = this.valid ? UUID.randomUUID().toString() : "not-a-uuid";
+    }
+
+    @Benchmark
+    public void contextLookup(Blackhole blackhole) {
+        for (Class<?> type : LOOKUP_TYPES) {
+            blackhole.consume(Resolvers.context(type));
+        }
+    }
+
+    @Benchmark
+    public Object resolveInteger() {
+        return this.integerResolver.resolve(this.number);
+    }
+
+    @Benchmark
+    public Object resolveLong() {
+        return this.longResolver.resolve(this.number);
+    }
+
+    @Benchmark
+    public Object resolveDouble() {
+        return this.doubleResolver.resolve(this.decimal);
+    }
+
+    @Benchmark
+    public Object resolveFloat() {
+        return this.floatResolver.resolve(this.decimal);
+    }
+
+    @Benchmark
+    public Object resolveBoolean() {
+        return this.booleanResolver.resolve(this.number);
+    }
+
+    @Benchmark
+    public Object resolveUUID() {
+        return this.uuidResolver.resolve(this.uuid);
+    }
+}
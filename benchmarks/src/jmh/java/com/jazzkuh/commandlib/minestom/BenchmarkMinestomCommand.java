@@ -0,0 +1,48 @@
+package com.jazzkuh.commandlib.minestom;
+
+import com.jazzkuh.commandlib.common.AnnotationSubCommand;
+import net.minestom.server.command.CommandSender;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+public class BenchmarkMinestomCommand extends AnnotationCommand {
+    public BenchmarkMinestomCommand(int mainCommandCount, int argumentCount) {
+        super("bench");
+
+        Method numeric = method("numeric", argumentCount);
+        Method text = method("text", argumentCount);
+        for (int i = 0; i < mainCommandCount; i++) {
+            Method method = i == mainCommandCount - 1 ? text : numeric;
+            this.mainCommands.add(new AnnotationSubCommand("bench", "", List.of(), "Benchmark overload", null, method));
+        }
+        this.reindex();
+    }
+
+    private static Method method(String prefix, int argumentCount) {
+        return Arrays.stream(BenchmarkMinestomCommand.class.getMethods())
+                .filter(method -> method.getName().startsWith(prefix))
+                .filter(method -> method.getParameterCount() == argumentCount + 1)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    public void numeric0(CommandSender sender) {
+    }
+
+    public void numeric2(CommandSender sender, int first, int second) {
+    }
+
+    public void numeric5(CommandSender sender, int first, int second, int third, int fourth, int fifth) {
+    }
+
+    public void text0(CommandSender sender) {
+    }
+
+    public void text2(CommandSender sender, String first, String second) {
+    }
+
+    public void text5(CommandSender sender, String first, String second, String third, String fourth, String fifth) {
+    }
+}
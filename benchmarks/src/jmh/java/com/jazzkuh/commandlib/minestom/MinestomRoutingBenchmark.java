@@ -0,0 +1,38 @@
+package com.jazzkuh.commandlib.minestom;
+
+import com.jazzkuh.commandlib.common.AnnotationSubCommand;
+import net.minestom.server.command.ConsoleSender;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MinestomRoutingBenchmark {
+    @Param({"1", "10", "60"})
+    public int mainCommandCount;
+
+    @Param({"0", "2", "5"})
+    public int argumentCount;
+
+    private BenchmarkMinestomCommand command;
+    private String[] arguments;
+    private ConsoleSender sender;
+
+    @Setup
+    public void setup() {
+        this.command = new BenchmarkMinestomCommand(this.mainCommandCount, this.argumentCount);
+        this.arguments = new String[this.argumentCount];
+        Arrays.fill(this.arguments, "value");
+        this.sender = new ConsoleSender();
+
+        if (this.findMatchingMainCommand() == null) throw new IllegalStateException("Arguments do not match a main command");
+    }
+
+    @Benchmark
+    public AnnotationSubCommand findMatchingMainCommand() {
+        return this.command.findMatchingMainCommand(this.sender, this.arguments);
+    }
+}
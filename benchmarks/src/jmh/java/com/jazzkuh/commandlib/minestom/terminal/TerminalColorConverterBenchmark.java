@@ -0,0 +1,39 @@
+package com.jazzkuh.commandlib.minestom.terminal;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TerminalColorConverterBenchmark {
+    @Param({"plain", "legacy", "hex"})
+    public String style;
+
+    @Param({"1", "10", "50"})
+    public int segmentCount;
+
+    private String input;
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < this.segmentCount; i++) {
+            switch (this.style) {
+                case "legacy" -> builder.append('§').append("0123456789abcdef".charAt(i % 16));
+                case "hex" -> builder.append('§').append("#").append(String.format("%06x", i * 4099));
+                default -> {
+                }
+            }
+            builder.append("segment ").append(i).append(' ');
+        }
+
+        this.input = builder.toString();
+    }
+
+    @Benchmark
+    public String format() {
+        return TerminalColorConverter.format(this.input);
+    }
+}
@@ -0,0 +1,41 @@
+package com.jazzkuh.commandlib.spigot;
+
+import com.jazzkuh.commandlib.benchmarks.Fixtures;
+import com.jazzkuh.commandlib.common.AnnotationSubCommand;
+import com.jazzkuh.commandlib.common.annotations.Completion;
+import org.bukkit.command.CommandSender;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+public class BenchmarkSpigotCommand extends AnnotationCommand {
+    public BenchmarkSpigotCommand(int subCommandCount, int argumentCount) {
+        super("bench");
+
+        Method method = Arrays.stream(BenchmarkSpigotCommand.class.getMethods())
+                .filter(candidate -> candidate.getName().startsWith("arguments"))
+                .filter(candidate -> candidate.getParameterCount() == argumentCount + 1)
+                .findFirst()
+                .orElseThrow();
+
+        for (int i = 0; i < subCommandCount; i++) {
+            String name = i % 2 == 0 ? "sub" + i : "group" + (i % 5) + " sub" + i;
+            this.subCommands.add(new AnnotationSubCommand(name, "", List.of("alias" + i), "Benchmark subcommand", null, method));
+        }
+        this.reindex();
+    }
+
+    public List<AnnotationSubCommand> subCommands() {
+        return this.subCommands;
+    }
+
+    public void arguments0(CommandSender sender) {
+    }
+
+    public void arguments2(CommandSender sender, @Completion(Fixtures.CANDIDATES) String first, int second) {
+    }
+
+    public void arguments5(CommandSender sender, @Completion(Fixtures.CANDIDATES) String first, int second, double third, boolean fourth, long fifth) {
+    }
+}
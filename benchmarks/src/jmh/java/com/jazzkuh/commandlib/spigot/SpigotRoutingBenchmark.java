@@ -0,0 +1,83 @@
+package com.jazzkuh.commandlib.spigot;
+
+import com.jazzkuh.commandlib.benchmarks.Fixtures;
+import com.jazzkuh.commandlib.benchmarks.Stubs;
+import com.jazzkuh.commandlib.common.AnnotationSubCommand;
+import com.jazzkuh.commandlib.common.resolvers.CompletionResolver;
+import com.jazzkuh.commandlib.common.resolvers.Resolvers;
+import org.bukkit.command.CommandSender;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpigotRoutingBenchmark {
+    @Param({"1", "10", "60"})
+    public int subCommandCount;
+
+    @Param({"0", "2", "5"})
+    public int argumentCount;
+
+    @Param({"10", "100", "1000"})
+    public int candidateCount;
+
+    private BenchmarkSpigotCommand command;
+    private CommandSender sender;
+    private String[] routeArguments;
+    private String[] partialName;
+    private String[] partialArgument;
+
+    @Setup
+    public void setup() {
+        List<String> candidates = Fixtures.candidates(this.candidateCount);
+        Resolvers.register((CompletionResolver<CommandSender>) (sender, arg) -> candidates, Fixtures.CANDIDATES);
+
+        this.command = new BenchmarkSpigotCommand(this.subCommandCount, this.argumentCount);
+        this.sender = Stubs.sender(CommandSender.class, "benchmark");
+
+        List<AnnotationSubCommand> subCommands = this.command.subCommands();
+        String[] lastName = subCommands.get(subCommands.size() - 1).getName().split(" ");
+        String[] arguments = Fixtures.arguments(lastName[lastName.length - 1], this.argumentCount);
+
+        this.routeArguments = new String[lastName.length - 1 + arguments.length];
+        System.arraycopy(lastName, 0, this.routeArguments, 0, lastName.length - 1);
+        System.arraycopy(arguments, 0, this.routeArguments, lastName.length - 1, arguments.length);
+
+        this.partialName = new String[]{"sub"};
+        this.partialArgument = new String[lastName.length + 1];
+        System.arraycopy(lastName, 0, this.partialArgument, 0, lastName.length);
+        this.partialArgument[lastName.length] = "candidate1";
+
+        if (this.matchLength() == null) throw new IllegalStateException("Route arguments do not match a subcommand");
+        if (this.tabCompleteName().isEmpty()) throw new IllegalStateException("Subcommand names did not complete");
+        if (this.argumentCount > 0 && this.tabCompleteArgument().isEmpty()) throw new IllegalStateException("Arguments did not complete");
+    }
+
+    @Benchmark
+    public AnnotationSubCommand matchLength() {
+        AnnotationSubCommand match = null;
+        int matchLength = 0;
+        for (AnnotationSubCommand subCommand : this.command.subCommands()) {
+            int length = AnnotationCommand.matchLength(subCommand, this.routeArguments);
+            if (length > matchLength) {
+                match = subCommand;
+                matchLength = length;
+            }
+        }
+
+        return match;
+    }
+
+    @Benchmark
+    public List<String> tabCompleteName() {
+        return this.command.tabComplete(this.sender, "bench", this.partialName);
+    }
+
+    @Benchmark
+    public List<String> tabCompleteArgument() {
+        return this.command.tabComplete(this.sender, "bench", this.partialArgument);
+    }
+}
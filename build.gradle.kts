@@ -28,10 +28,12 @@ subprojects {
         "testImplementation"("junit:junit:4.13.2")
     }
 
-    configure<PublishingExtension> {
-        publications {
-            create<MavenPublication>("maven") {
-                from(components["java"])
+    if (project.name != "benchmarks") {
+        configure<PublishingExtension> {
+            publications {
+                create<MavenPublication>("maven") {
+                    from(components["java"])
+                }
             }
         }
     }
@@ -1,4 +1,5 @@
 dependencies {
 
     compileOnly("net.kyori:adventure-api:5.1.1")
+    compileOnly("com.mojang:brigadier:1.0.18")
 }
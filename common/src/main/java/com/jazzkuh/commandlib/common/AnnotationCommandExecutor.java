@@ -5,9 +5,21 @@ import com.jazzkuh.commandlib.common.annotations.Greedy;
 import com.jazzkuh.commandlib.common.annotations.Main;
 import com.jazzkuh.commandlib.common.annotations.Optional;
 import com.jazzkuh.commandlib.common.exception.*;
+import com.jazzkuh.commandlib.common.interceptor.CommandInvocation;
+import com.jazzkuh.commandlib.common.interceptor.InterceptorChain;
+import com.jazzkuh.commandlib.common.metrics.CommandMetrics;
+import com.jazzkuh.commandlib.common.metrics.CommandPhase;
+import com.jazzkuh.commandlib.common.metrics.Metrics;
+import com.jazzkuh.commandlib.common.options.OptionSpec;
+import com.jazzkuh.commandlib.common.ratelimit.RateLimits;
+import com.jazzkuh.commandlib.common.resolvers.ArgumentResolver;
 import com.jazzkuh.commandlib.common.resolvers.CompletionResolver;
-import com.jazzkuh.commandlib.common.resolvers.ContextResolver;
+import com.jazzkuh.commandlib.common.resolvers.ResolutionContext;
+import com.jazzkuh.commandlib.common.resolvers.ResolveResult;
 import com.jazzkuh.commandlib.common.resolvers.Resolvers;
+import com.jazzkuh.commandlib.common.resolvers.Variadics;
+import com.jazzkuh.commandlib.common.tokenizer.ArgumentTokens;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
@@ -16,35 +28,179 @@ import java.util.stream.StreamSupport;
 
 public record AnnotationCommandExecutor<T>(AnnotationSubCommand subCommand, AnnotationCommandImpl annotationCommand) {
     public void execute(AnnotationCommandSender<T> sender, String[] args) throws CommandException {
+        this.execute(sender, args, null, 0);
+    }
+
+    /**
+     * @param tokens the tokens the arguments were read from, so a greedy string takes the rest of the raw input with
+     *               its quotes, escapes and whitespace, or null to join the arguments instead
+     * @param offset the index of the token the first argument was read from, or of the last token of a subcommand name
+     *               that spans several
+     */
+    public void execute(AnnotationCommandSender<T> sender, String[] args, @Nullable ArgumentTokens tokens, int offset) throws CommandException {
+        InterceptorChain chain = this.subCommand.getInterceptors().get();
+        if (chain.isEmpty()) {
+            this.dispatch(sender, args, tokens, offset);
+            return;
+        }
+
+        CommandInvocation invocation = chain.begin(this.annotationCommand, this.subCommand.getName(), this.subCommand.getMethod(), sender.getSender(), args);
+        try {
+            chain.before(invocation);
+            this.dispatch(sender, args, tokens, offset);
+            chain.after(invocation);
+        } catch (CommandException exception) {
+            chain.onError(invocation, exception);
+            throw exception;
+        } catch (RuntimeException exception) {
+            chain.onError(invocation, new ErrorException(exception.getMessage()));
+            throw exception;
+        } finally {
+            chain.end(invocation);
+        }
+    }
+
+    /**
+     * Invokes the subcommand with arguments that were already parsed by the platform, skipping the string resolution
+     * path entirely. The arguments are bound after interceptors ran and the rate limit was acquired, like resolution.
+     *
+     * @param args   the raw arguments, only used for interceptors
+     * @param binder binds the parsed arguments, excluding the sender
+     */
+    public void executeResolved(AnnotationCommandSender<T> sender, String[] args, ArgumentBinder binder) throws CommandException {
+        InterceptorChain chain = this.subCommand.getInterceptors().get();
+        if (chain.isEmpty()) {
+            this.dispatchResolved(sender, binder);
+            return;
+        }
+
+        CommandInvocation invocation = chain.begin(this.annotationCommand, this.subCommand.getName(), this.subCommand.getMethod(), sender.getSender(), args);
+        try {
+            chain.before(invocation);
+            this.dispatchResolved(sender, binder);
+            chain.after(invocation);
+        } catch (CommandException exception) {
+            chain.onError(invocation, exception);
+            throw exception;
+        } catch (RuntimeException exception) {
+            chain.onError(invocation, new ErrorException(exception.getMessage()));
+            throw exception;
+        } finally {
+            chain.end(invocation);
+        }
+    }
+
+    /**
+     * Checks that the arguments route to and resolve for this subcommand without invoking it. Used for dry runs, so
+     * neither rate limits nor interceptors are involved.
+     */
+    public void validate(AnnotationCommandSender<T> sender, String[] args) throws CommandException {
+        this.checkSender(sender);
+        OptionSpec options = OptionSpec.of(this.subCommand.getMethod());
+        String[] optionValues = null;
+        if (!options.isEmpty()) {
+            OptionSpec.ParsedArguments parsed = options.parse(args);
+            args = parsed.positional();
+            optionValues = parsed.values();
+        }
+
+        this.checkArguments(args);
+        this.resolveParameters(sender, args, null, 0, options, optionValues);
+    }
+
+    private void dispatch(AnnotationCommandSender<T> sender, String[] args, @Nullable ArgumentTokens tokens, int offset) throws CommandException {
+        this.checkSender(sender);
+        CommandMetrics metrics = Metrics.getCommandMetrics();
+        String commandName = this.annotationCommand.getCommandName();
+        long start = System.nanoTime();
+
         Method method = this.subCommand.getMethod();
-        List<Parameter> parameters = Arrays.stream(this.subCommand.getMethod().getParameters()).toList();
+        OptionSpec options = OptionSpec.of(method);
+        String[] optionValues = null;
+        if (!options.isEmpty()) {
+            OptionSpec.ParsedArguments parsed = options.parse(args);
+            args = parsed.positional();
+            optionValues = parsed.values();
+        }
 
-        Object[] resolvedParameters = new Object[parameters.size()];
-        resolvedParameters[0] = sender.getSender();
+        this.checkArguments(args);
+        RateLimits.acquire(this.annotationCommand, method, sender.getSender());
+
+        long resolveStart = System.nanoTime();
+        metrics.recordPhase(commandName, this.subCommand.getName(), CommandPhase.PARSE, resolveStart - start);
+
+        Object[] resolvedParameters = this.resolveParameters(sender, args, tokens, offset, options, optionValues);
+
+        long invokeStart = System.nanoTime();
+        metrics.recordPhase(commandName, this.subCommand.getName(), CommandPhase.RESOLVE, invokeStart - resolveStart);
+
+        try {
+            method.setAccessible(true);
+            method.invoke(this.annotationCommand, resolvedParameters);
+        } catch (Exception exception) {
+            exception.printStackTrace();
+            throw new ErrorException(exception.getMessage());
+        } finally {
+            metrics.recordPhase(commandName, this.subCommand.getName(), CommandPhase.INVOKE, System.nanoTime() - invokeStart);
+        }
+    }
+
+    private void checkSender(AnnotationCommandSender<T> sender) throws SenderException {
+        if (!this.subCommand.getMethod().getParameterTypes()[0].isInstance(sender.getSender())) throw new SenderException();
+    }
+
+    private void checkArguments(String[] args) throws ArgumentException {
+        Method method = this.subCommand.getMethod();
+        List<Parameter> parameters = Arrays.stream(method.getParameters()).toList();
 
-        int size = parameters.stream().filter(parameter -> !parameter.isAnnotationPresent(Optional.class)).toList().size();
+        int size = parameters.stream().filter(parameter -> !parameter.isAnnotationPresent(Optional.class) && !OptionSpec.isOption(parameter)).toList().size();
         int paramSize = method.isAnnotationPresent(Main.class) ? size - 1 : size;
 
         if (args.length < paramSize) throw new ArgumentException();
-        if (!method.getParameterTypes()[0].isInstance(sender.getSender())) throw new PermissionException("You are not allowed to execute this command.");
+    }
+
+    private Object[] resolveParameters(AnnotationCommandSender<T> sender, String[] args, @Nullable ArgumentTokens tokens, int offset, OptionSpec options, String[] optionValues) throws CommandException {
+        Method method = this.subCommand.getMethod();
+        List<Parameter> parameters = Arrays.stream(method.getParameters()).toList();
+
+        Object[] resolvedParameters = new Object[parameters.size()];
+        resolvedParameters[0] = sender.getSender();
 
+        ResolutionContext<T> context = null;
+        // positional arguments skip option parameters, args[0] is the subcommand name unless this is a main command
+        int position = method.isAnnotationPresent(Main.class) ? 0 : 1;
         for (int i = 1; i < parameters.size(); i++) {
             Parameter parameter = parameters.get(i);
             Class<?> paramClass = parameter.getType();
+            if (options.isOption(i)) {
+                resolvedParameters[i] = OptionSpec.resolve(parameter, optionValues[i]);
+                continue;
+            }
 
-            ContextResolver<?> contextResolver = Resolvers.context(paramClass);
-            if (contextResolver == null) {
+            int argumentIndex = position++;
+            if (Variadics.isVariadic(paramClass)) {
+                // a variadic parameter takes every remaining argument
+                if (args.length <= argumentIndex && parameter.isAnnotationPresent(Optional.class)) {
+                    resolvedParameters[i] = null;
+                } else {
+                    resolvedParameters[i] = Variadics.bind(parameter, args, argumentIndex);
+                }
+                position = args.length;
+                continue;
+            }
+
+            ArgumentResolver<?> argumentResolver = Resolvers.argument(paramClass);
+            if (argumentResolver == null) {
                 if (!paramClass.isEnum()) throw new ContextResolverException(paramClass.getName());
 
-                int argumentIndex = method.isAnnotationPresent(Main.class) ? i - 1 : i;
                 if (args.length <= argumentIndex && parameter.isAnnotationPresent(Optional.class)) {
                     resolvedParameters[i] = null;
                 } else {
                     Object resolvedObject;
                     try {
-                        resolvedObject = Enum.valueOf((Class<? extends Enum>) paramClass, method.isAnnotationPresent(Main.class) ? args[i - 1].toUpperCase() : args[i].toUpperCase());
+                        resolvedObject = Enum.valueOf((Class<? extends Enum>) paramClass, args[argumentIndex].toUpperCase());
                     } catch (Exception exception) {
-                        throw new ParameterException("Cannot resolver parameter " + (method.isAnnotationPresent(Main.class) ? args[i - 1] : args[i]) + " for type " + paramClass.getSimpleName());
+                        throw new ParameterException("Cannot resolver parameter " + args[argumentIndex] + " for type " + paramClass.getSimpleName());
                     }
 
                     resolvedParameters[i] = resolvedObject;
@@ -52,50 +208,115 @@ public record AnnotationCommandExecutor<T>(AnnotationSubCommand subCommand, Anno
                 continue;
             }
 
-            int argumentIndex = method.isAnnotationPresent(Main.class) ? i - 1 : i;
             if (args.length <= argumentIndex && parameter.isAnnotationPresent(Optional.class)) {
                 resolvedParameters[i] = null;
             } else {
                 if (parameter.isAnnotationPresent(Greedy.class) && paramClass == String.class) {
-                    String[] array = Arrays.copyOfRange(args, argumentIndex, args.length);
-                    resolvedParameters[i] = String.join(" ", array);
+                    resolvedParameters[i] = greedy(args, argumentIndex, tokens, offset, options);
                     continue;
                 }
 
-                Object resolvedObject = contextResolver.resolve(method.isAnnotationPresent(Main.class) ? args[i - 1] : args[i]);
-                if (resolvedObject == null) {
-                    throw new ParameterException("Cannot resolver parameter " + (method.isAnnotationPresent(Main.class) ? args[i - 1] : args[i]) + " for type " + paramClass.getSimpleName());
+                if (context == null) context = new ResolutionContext<>(sender, this.annotationCommand, resolvedParameters);
+                ResolveResult<?> result = argumentResolver.resolve(args[argumentIndex], context.at(i, parameter));
+                if (!result.isSuccess()) {
+                    throw new ParameterException(result.getError() != null ? result.getError() : "Cannot resolver parameter " + args[argumentIndex] + " for type " + paramClass.getSimpleName());
                 }
-                resolvedParameters[i] = resolvedObject;
+                resolvedParameters[i] = result.getValue();
             }
         }
 
+        return resolvedParameters;
+    }
+
+    /**
+     * @return the rest of the raw input from the argument on, as typed, or the remaining arguments joined with spaces
+     * if the tokens are unknown or options may have been taken out of the rest
+     */
+    private static String greedy(String[] args, int argumentIndex, @Nullable ArgumentTokens tokens, int offset, OptionSpec options) {
+        int token = offset + argumentIndex;
+        if (tokens == null || !options.isEmpty() || token >= tokens.size()) {
+            return String.join(" ", Arrays.copyOfRange(args, argumentIndex, args.length));
+        }
+        return tokens.getInput().substring(tokens.start(token), tokens.end(tokens.size() - 1));
+    }
+
+    private void dispatchResolved(AnnotationCommandSender<T> sender, ArgumentBinder binder) throws CommandException {
+        this.checkSender(sender);
+        CommandMetrics metrics = Metrics.getCommandMetrics();
+        Method method = this.subCommand.getMethod();
+        RateLimits.acquire(this.annotationCommand, method, sender.getSender());
+
+        long resolveStart = System.nanoTime();
+        Object[] arguments = binder.bind();
+        metrics.recordPhase(this.annotationCommand.getCommandName(), this.subCommand.getName(), CommandPhase.RESOLVE, System.nanoTime() - resolveStart);
+
+        Object[] resolvedParameters = new Object[method.getParameterCount()];
+        resolvedParameters[0] = sender.getSender();
+        System.arraycopy(arguments, 0, resolvedParameters, 1, Math.min(arguments.length, resolvedParameters.length - 1));
+
+        long invokeStart = System.nanoTime();
         try {
             method.setAccessible(true);
             method.invoke(this.annotationCommand, resolvedParameters);
         } catch (Exception exception) {
             exception.printStackTrace();
             throw new ErrorException(exception.getMessage());
+        } finally {
+            metrics.recordPhase(this.annotationCommand.getCommandName(), this.subCommand.getName(), CommandPhase.INVOKE, System.nanoTime() - invokeStart);
         }
     }
 
     public List<String> complete(AnnotationCommandSender<T> sender, String[] args) {
         Method method = this.subCommand.method();
-        List<Parameter> parameters = Arrays.stream(this.subCommand.method().getParameters()).toList();
+        List<Parameter> parameters = Arrays.stream(method.getParameters()).toList();
+        OptionSpec spec = OptionSpec.of(method);
+        if (spec.isEmpty() || args.length < 1) return this.complete(sender, args, parameters);
+
+        String arg = args[args.length - 1];
+        if (args.length > 1 && spec.takesValue(args[args.length - 2])) {
+            return this.completeParameter(sender, parameters.get(spec.slot(args[args.length - 2])), arg);
+        }
+
+        if (arg.startsWith("-")) {
+            return copyPartialMatches(arg, Arrays.asList(spec.getNames()), new ArrayList<>());
+        }
+
+        List<String> positional = new ArrayList<>(args.length);
+        for (int i = 0; i < args.length - 1; i++) {
+            String token = args[i];
+            int separator = token.indexOf('=');
+            if (spec.slot(separator < 0 ? token : token.substring(0, separator)) < 0) {
+                positional.add(token);
+            } else if (separator < 0 && spec.takesValue(token)) {
+                i++;
+            }
+        }
+        positional.add(arg);
+
+        List<Parameter> positionalParameters = parameters.stream().filter(parameter -> !OptionSpec.isOption(parameter)).toList();
+        return this.complete(sender, positional.toArray(new String[0]), positionalParameters);
+    }
+
+    private List<String> complete(AnnotationCommandSender<T> sender, String[] args, List<Parameter> parameters) {
+        Method method = this.subCommand.method();
         List<String> options = new ArrayList<>(Collections.emptyList());
 
+        boolean variadic = parameters.size() > 1 && Variadics.isVariadic(parameters.get(parameters.size() - 1).getType());
         int paramSize = method.isAnnotationPresent(Main.class) ? parameters.size() - 1 : parameters.size();
-        if (args.length > paramSize) return options;
+        if (args.length > paramSize && !variadic) return options;
         int index = args.length < 1 ? 0 : args.length - 1;
 
         int paramIndex = method.isAnnotationPresent(Main.class) ? index + 1 : index;
+        if (variadic && paramIndex >= parameters.size()) paramIndex = parameters.size() - 1;
         if (paramIndex >= parameters.size() && paramIndex - 1 >= parameters.size()) return options;
 
         Parameter parameter = parameters.get(paramIndex >= parameters.size() ? paramIndex - 1 : paramIndex);
-        Class<?> paramClass = parameter.getType();
         if (args.length < index + 1) return options;
-        String arg = args[index];
+        return this.completeParameter(sender, parameter, args[index]);
+    }
 
+    private List<String> completeParameter(AnnotationCommandSender<T> sender, Parameter parameter, String arg) {
+        Class<?> paramClass = Variadics.isVariadic(parameter.getType()) ? Variadics.elementType(parameter) : parameter.getType();
         if (parameter.isAnnotationPresent(Completion.class)) {
             Completion completion = parameter.getAnnotation(Completion.class);
             CompletionResolver<T> resolver = Resolvers.completion(completion.value());
@@ -111,7 +332,7 @@ public record AnnotationCommandExecutor<T>(AnnotationSubCommand subCommand, Anno
             return copyPartialMatches(arg, EnumSet.allOf((Class<? extends Enum>) paramClass).stream().map(value -> value.toString().toLowerCase()).toList(), new ArrayList<>(EnumSet.allOf((Class<? extends Enum>) paramClass).size()));
         }
 
-        return options;
+        return new ArrayList<>();
     }
 
     private <S extends Collection<? super String>> S copyPartialMatches(final String token, final Iterable<String> originals, final S collection) throws UnsupportedOperationException, IllegalArgumentException {
@@ -1,7 +1,25 @@
 package com.jazzkuh.commandlib.common;
 
+import com.jazzkuh.commandlib.common.ratelimit.RateLimits;
+
 public interface AnnotationCommandImpl {
     default String getCommandName() {
         return this.getClass().getName().toLowerCase();
     }
+
+    /**
+     * Returns the key that per-sender state such as cooldowns and completion results is tracked under, or
+     * {@link RateLimits#EXEMPT} if the sender is not tracked at all (for example the console).
+     */
+    default long getSenderKey(Object sender) {
+        return RateLimits.EXEMPT;
+    }
+
+    default String getSenderName(Object sender) {
+        return String.valueOf(sender);
+    }
+
+    default boolean hasBypass(Object sender, String permission) {
+        return false;
+    }
 }
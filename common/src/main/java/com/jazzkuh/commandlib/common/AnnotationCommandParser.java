@@ -1,6 +1,11 @@
 package com.jazzkuh.commandlib.common;
 
 import com.jazzkuh.commandlib.common.annotations.*;
+import com.jazzkuh.commandlib.common.metrics.StartupPhase;
+import com.jazzkuh.commandlib.common.metrics.StartupProfiler;
+import com.jazzkuh.commandlib.common.options.OptionSpec;
+import com.jazzkuh.commandlib.common.registry.MetadataCache;
+import com.jazzkuh.commandlib.common.resolvers.Variadics;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
@@ -9,6 +14,28 @@ import java.util.Arrays;
 import java.util.List;
 
 public class AnnotationCommandParser {
+    public static void parse(AnnotationCommandImpl baseCommand, List<AnnotationSubCommand> mainCommands, List<AnnotationSubCommand> subCommands) {
+        Class<?> type = baseCommand.getClass();
+        MetadataCache cache = MetadataCache.getActive();
+        long start = StartupProfiler.start();
+        if (cache != null && cache.load(baseCommand, mainCommands, subCommands)) {
+            StartupProfiler.stop(type, StartupPhase.PARSE, start);
+            return;
+        }
+
+        Method[] methods = type.getMethods();
+        StartupProfiler.stop(type, StartupPhase.REFLECTION, start);
+
+        start = StartupProfiler.start();
+        for (Method method : methods) {
+            if (method.isAnnotationPresent(Main.class)) mainCommands.add(parse(baseCommand, method));
+            if (method.isAnnotationPresent(Subcommand.class)) subCommands.add(parse(baseCommand, method));
+        }
+
+        if (cache != null) cache.store(baseCommand, mainCommands, subCommands);
+        StartupProfiler.stop(type, StartupPhase.PARSE, start);
+    }
+
     public static AnnotationSubCommand parse(AnnotationCommandImpl baseCommand, Method method) {
         String name = null;
         List<String> aliases = new ArrayList<>();
@@ -34,20 +61,50 @@ public class AnnotationCommandParser {
             StringBuilder paramUsage = new StringBuilder();
             for (int i = 1; i < parameters.size(); i++) {
                 Parameter parameter = parameters.get(i);
+                if (OptionSpec.isOption(parameter)) continue;
+
                 paramUsage.append("<").append(parameter.getName());
-                if (parameter.getType().isArray()) {
+                if (Variadics.isVariadic(parameter.getType())) {
                     paramUsage.append("...");
                 }
-                paramUsage.append(">");
+                paramUsage.append("> ");
+            }
 
-                if (i != parameters.size() - 1) {
-                    paramUsage.append(" ");
+            for (int i = 1; i < parameters.size(); i++) {
+                Parameter parameter = parameters.get(i);
+                if (parameter.isAnnotationPresent(Flag.class)) {
+                    paramUsage.append("[").append(OptionSpec.normalize(parameter.getAnnotation(Flag.class).value()[0])).append("] ");
+                } else if (parameter.isAnnotationPresent(Named.class)) {
+                    String option = OptionSpec.normalize(parameter.getAnnotation(Named.class).value());
+                    paramUsage.append("[").append(option).append(" <").append(parameter.getName()).append(">] ");
                 }
             }
 
-            usage = paramUsage.toString();
+            usage = paramUsage.toString().trim();
         }
         usage = !usage.isEmpty() ? " " + usage : "";
-        return new AnnotationSubCommand(name, usage, aliases, description, permission, method);
+        AnnotationSubCommand subCommand = new AnnotationSubCommand(name, usage, aliases, description, permission, method, parameters(method));
+        // compile the interceptor chain up front so the first dispatch does not pay for it
+        subCommand.getInterceptors().get();
+        return subCommand;
+    }
+
+    public static List<AnnotationParameter> parameters(Method method) {
+        Parameter[] parameters = method.getParameters();
+        List<AnnotationParameter> annotationParameters = new ArrayList<>(Math.max(0, parameters.length - 1));
+        for (int i = 1; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            Completion completion = parameter.getAnnotation(Completion.class);
+            annotationParameters.add(new AnnotationParameter(
+                    parameter.getName(),
+                    parameter.getType(),
+                    parameter.isAnnotationPresent(Optional.class),
+                    parameter.isAnnotationPresent(Greedy.class),
+                    completion != null ? completion.value() : null,
+                    parameter
+            ));
+        }
+
+        return List.copyOf(annotationParameters);
     }
 }
@@ -0,0 +1,10 @@
+package com.jazzkuh.commandlib.common;
+
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Parameter;
+
+public record AnnotationParameter(@Getter String name, @Getter Class<?> type, @Getter boolean optional, @Getter boolean greedy,
+                                  @Getter @Nullable String completion, @Getter Parameter parameter) {
+}
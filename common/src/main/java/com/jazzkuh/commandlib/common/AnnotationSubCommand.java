@@ -1,10 +1,19 @@
 package com.jazzkuh.commandlib.common;
 
+import com.jazzkuh.commandlib.common.interceptor.InterceptorSlot;
 import lombok.Getter;
 
 import java.lang.reflect.Method;
 import java.util.List;
 
 public record AnnotationSubCommand(@Getter String name, @Getter String usage, @Getter List<String> aliases,
-                                   @Getter String description, @Getter String permission, @Getter Method method) {
+                                   @Getter String description, @Getter String permission, @Getter Method method,
+                                   @Getter List<AnnotationParameter> parameters, @Getter InterceptorSlot interceptors) {
+    public AnnotationSubCommand(String name, String usage, List<String> aliases, String description, String permission, Method method, List<AnnotationParameter> parameters) {
+        this(name, usage, aliases, description, permission, method, parameters, new InterceptorSlot(method));
+    }
+
+    public AnnotationSubCommand(String name, String usage, List<String> aliases, String description, String permission, Method method) {
+        this(name, usage, aliases, description, permission, method, AnnotationCommandParser.parameters(method));
+    }
 }
@@ -0,0 +1,15 @@
+package com.jazzkuh.commandlib.common;
+
+import com.jazzkuh.commandlib.common.exception.CommandException;
+
+/**
+ * Binds arguments that the platform already parsed to the parameters of a subcommand. Called by
+ * {@link AnnotationCommandExecutor#executeResolved} only once interceptors and rate limits let the invocation through.
+ */
+@FunctionalInterface
+public interface ArgumentBinder {
+    /**
+     * @return the resolved arguments, excluding the sender
+     */
+    Object[] bind() throws CommandException;
+}
@@ -0,0 +1,123 @@
+package com.jazzkuh.commandlib.common;
+
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Main commands, and subcommands with the same name, whose parameters only differ in the sender type, such as one
+ * variant for players and one for the console. Platforms route to the first of such a group and then select the
+ * variant for the sender class here, before any argument is resolved. The choice is cached per sender class in a
+ * {@link ClassValue}, so selecting is a single lookup.
+ * <p>
+ * Only variants that each take a different sender type are grouped. If no variant accepts the sender, there is
+ * nothing to select and platforms reject the sender before doing anything else.
+ */
+public final class SenderOverloads {
+    private final Map<AnnotationSubCommand, Group> groups = new IdentityHashMap<>();
+    /**
+     * The main command to run when no subcommand matches, or null if there are several that are not variants of
+     * each other.
+     */
+    @Getter
+    private final AnnotationSubCommand main;
+
+    public SenderOverloads(List<AnnotationSubCommand> mainCommands, List<AnnotationSubCommand> subCommands) {
+        this.group(mainCommands, true);
+        this.group(subCommands, false);
+
+        Group mainGroup = mainCommands.isEmpty() ? null : this.groups.get(mainCommands.get(0));
+        boolean single = mainCommands.size() == 1 || (mainGroup != null && mainGroup.overloads.size() == mainCommands.size());
+        this.main = single ? mainCommands.get(0) : null;
+    }
+
+    private void group(List<AnnotationSubCommand> commands, boolean main) {
+        Map<List<Object>, List<AnnotationSubCommand>> signatures = new LinkedHashMap<>();
+        for (AnnotationSubCommand command : commands) {
+            Class<?>[] parameterTypes = command.getMethod().getParameterTypes();
+            if (parameterTypes.length == 0) continue;
+
+            List<Object> signature = new ArrayList<>();
+            signature.add(main ? "" : command.getName().toLowerCase());
+            signature.addAll(Arrays.asList(parameterTypes).subList(1, parameterTypes.length));
+            signatures.computeIfAbsent(signature, key -> new ArrayList<>()).add(command);
+        }
+
+        for (List<AnnotationSubCommand> overloads : signatures.values()) {
+            if (overloads.size() < 2 || !distinctSenderTypes(overloads)) continue;
+
+            Group group = new Group(List.copyOf(overloads));
+            for (AnnotationSubCommand overload : overloads) {
+                this.groups.put(overload, group);
+            }
+        }
+    }
+
+    private static boolean distinctSenderTypes(List<AnnotationSubCommand> overloads) {
+        Set<Class<?>> senderTypes = new HashSet<>();
+        for (AnnotationSubCommand overload : overloads) {
+            if (!senderTypes.add(overload.getMethod().getParameterTypes()[0])) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the variant of the subcommand that takes the most specific type the sender is an instance of, the
+     * subcommand itself if it has no variants, or null if none of its variants accepts the sender
+     */
+    @Nullable
+    public AnnotationSubCommand select(AnnotationSubCommand subCommand, Object sender) {
+        Group group = this.groups.get(subCommand);
+        if (group == null || sender == null) return subCommand;
+        return group.get(sender.getClass()).orElse(null);
+    }
+
+    /**
+     * @return whether the subcommand is the first of its variants, or has none; platforms only list and register
+     * those once
+     */
+    public boolean isPrimary(AnnotationSubCommand subCommand) {
+        Group group = this.groups.get(subCommand);
+        return group == null || group.overloads.get(0) == subCommand;
+    }
+
+    /**
+     * @return the subcommand and its variants, first one first
+     */
+    public List<AnnotationSubCommand> variants(AnnotationSubCommand subCommand) {
+        Group group = this.groups.get(subCommand);
+        return group == null ? List.of(subCommand) : group.overloads;
+    }
+
+    private static final class Group extends ClassValue<Optional<AnnotationSubCommand>> {
+        private final List<AnnotationSubCommand> overloads;
+
+        private Group(List<AnnotationSubCommand> overloads) {
+            this.overloads = overloads;
+        }
+
+        @Override
+        protected Optional<AnnotationSubCommand> computeValue(Class<?> senderType) {
+            AnnotationSubCommand selected = null;
+            Class<?> selectedType = null;
+            for (AnnotationSubCommand overload : this.overloads) {
+                Class<?> type = overload.getMethod().getParameterTypes()[0];
+                if (!type.isAssignableFrom(senderType)) continue;
+                if (selectedType == null || selectedType.isAssignableFrom(type)) {
+                    selected = overload;
+                    selectedType = type;
+                }
+            }
+            return Optional.ofNullable(selected);
+        }
+    }
+}
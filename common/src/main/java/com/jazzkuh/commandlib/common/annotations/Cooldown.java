@@ -0,0 +1,20 @@
+package com.jazzkuh.commandlib.common.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cooldown {
+    /**
+     * @return the cooldown in seconds
+     */
+    long value();
+
+    /**
+     * @return the permission that bypasses the cooldown, or an empty string for none
+     */
+    String bypass() default "";
+}
@@ -0,0 +1,16 @@
+package com.jazzkuh.commandlib.common.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@code boolean} parameter as a switch, for example {@code @Flag({"-s", "--silent"})}. The parameter is
+ * {@code true} when any of the names is present anywhere in the arguments.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface Flag {
+    String[] value();
+}
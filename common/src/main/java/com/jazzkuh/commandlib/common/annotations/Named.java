@@ -0,0 +1,19 @@
+package com.jazzkuh.commandlib.common.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a parameter as a named option that can appear anywhere in the arguments, as {@code --radius=5},
+ * {@code --radius 5} or, with an alias, {@code -r 5}. Absent options are {@code null}, or the default value for
+ * primitive types.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface Named {
+    String value();
+
+    String alias() default "";
+}
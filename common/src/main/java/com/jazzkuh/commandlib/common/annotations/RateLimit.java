@@ -0,0 +1,22 @@
+package com.jazzkuh.commandlib.common.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RateLimit {
+    int permits();
+
+    /**
+     * @return the window in seconds in which {@link #permits()} executions are allowed
+     */
+    long per();
+
+    /**
+     * @return the permission that bypasses the rate limit, or an empty string for none
+     */
+    String bypass() default "";
+}
@@ -0,0 +1,69 @@
+package com.jazzkuh.commandlib.common.audit;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The binary layout of audit log files: an 8 byte magic and a version, followed by records that are each prefixed with
+ * their length so a reader can skip or stop at a record that was only partially written.
+ */
+@UtilityClass
+class AuditFormat {
+    static final byte[] MAGIC = "CMDAUDIT".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = MAGIC.length + Integer.BYTES;
+
+    static byte[] encode(AuditRecord record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(0);
+            output.writeLong(record.timestamp());
+            output.writeLong(record.senderKey());
+            writeString(output, record.sender());
+            writeString(output, record.command());
+            writeString(output, record.subCommand());
+            writeString(output, record.arguments());
+            writeString(output, record.outcome() == null ? "" : record.outcome());
+            output.writeLong(record.latencyNanos());
+        } catch (IOException exception) {
+            throw new IllegalStateException(exception);
+        }
+
+        byte[] encoded = bytes.toByteArray();
+        int length = encoded.length - Integer.BYTES;
+        encoded[0] = (byte) (length >>> 24);
+        encoded[1] = (byte) (length >>> 16);
+        encoded[2] = (byte) (length >>> 8);
+        encoded[3] = (byte) length;
+        return encoded;
+    }
+
+    static AuditRecord decode(DataInputStream input) throws IOException {
+        long timestamp = input.readLong();
+        long senderKey = input.readLong();
+        String sender = readString(input);
+        String command = readString(input);
+        String subCommand = readString(input);
+        String arguments = readString(input);
+        String outcome = readString(input);
+        long latencyNanos = input.readLong();
+        return new AuditRecord(timestamp, senderKey, sender, command, subCommand, arguments, outcome.isEmpty() ? null : outcome, latencyNanos);
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
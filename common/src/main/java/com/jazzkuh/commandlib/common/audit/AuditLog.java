@@ -0,0 +1,176 @@
+package com.jazzkuh.commandlib.common.audit;
+
+import com.jazzkuh.commandlib.common.exception.CommandException;
+import com.jazzkuh.commandlib.common.interceptor.CommandInterceptor;
+import com.jazzkuh.commandlib.common.interceptor.CommandInvocation;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records every executed command into an append-only binary log. Executions are captured as an interceptor and
+ * handed to a lock-free ring buffer; a background thread flushes them in batches and rotates the file once it grows
+ * past the configured size. When the buffer is full the record is dropped and counted rather than blocking the
+ * command. Use {@link AuditLogReader} to export the files.
+ * <p>
+ * Register it with {@link com.jazzkuh.commandlib.common.interceptor.Interceptors#register} after calling
+ * {@link #start()}.
+ */
+public class AuditLog implements CommandInterceptor, Closeable {
+    private static final int BATCH_SIZE = 512;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final AuditRingBuffer buffer;
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writer;
+    private FileChannel channel;
+    private long fileBytes;
+
+    public AuditLog(Path directory) {
+        this(directory, 64L * 1024 * 1024, 8192);
+    }
+
+    public AuditLog(Path directory, long maxFileBytes, int capacity) {
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.buffer = new AuditRingBuffer(capacity);
+    }
+
+    public synchronized void start() throws IOException {
+        if (this.running) return;
+
+        Files.createDirectories(this.directory);
+        this.rotate();
+        this.running = true;
+        this.writer = new Thread(this::write, "commandlib-audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * @return how many records were dropped because the buffer was full
+     */
+    public long getDropped() {
+        return this.dropped.sum();
+    }
+
+    @Override
+    public void after(CommandInvocation invocation) {
+        this.record(invocation, null);
+    }
+
+    @Override
+    public void onError(CommandInvocation invocation, CommandException exception) {
+        this.record(invocation, exception.getClass().getSimpleName());
+    }
+
+    private void record(CommandInvocation invocation, @Nullable String outcome) {
+        if (!this.running) return;
+
+        Object sender = invocation.getSender();
+        String[] arguments = invocation.getArguments();
+        AuditRecord record = new AuditRecord(
+                System.currentTimeMillis(),
+                invocation.getCommand().getSenderKey(sender),
+                invocation.getCommand().getSenderName(sender),
+                invocation.getCommand().getCommandName(),
+                invocation.getSubCommand(),
+                arguments == null ? "" : String.join(" ", arguments),
+                outcome,
+                System.nanoTime() - invocation.getStartNanos()
+        );
+
+        if (!this.buffer.offer(record)) this.dropped.increment();
+    }
+
+    /**
+     * Stops the writer after it has flushed everything that is still buffered.
+     */
+    @Override
+    public void close() throws IOException {
+        Thread thread;
+        synchronized (this) {
+            if (!this.running) return;
+            this.running = false;
+            thread = this.writer;
+        }
+
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        this.channel.close();
+    }
+
+    private void write() {
+        ByteBuffer batch = ByteBuffer.allocate(256 * 1024);
+        while (true) {
+            int records = 0;
+            AuditRecord record;
+            while (records < BATCH_SIZE && (record = this.buffer.poll()) != null) {
+                byte[] encoded = AuditFormat.encode(record);
+                if (encoded.length > batch.remaining()) {
+                    this.flush(batch);
+                    if (encoded.length > batch.capacity()) batch = ByteBuffer.allocate(encoded.length);
+                }
+                batch.put(encoded);
+                records++;
+            }
+
+            if (records > 0) {
+                this.flush(batch);
+                continue;
+            }
+
+            if (!this.running) return;
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+    }
+
+    private void flush(ByteBuffer batch) {
+        batch.flip();
+        try {
+            if (this.fileBytes + batch.remaining() > this.maxFileBytes && this.fileBytes > AuditFormat.HEADER_SIZE) this.rotate();
+            while (batch.hasRemaining()) {
+                this.fileBytes += this.channel.write(batch);
+            }
+            this.channel.force(false);
+        } catch (IOException exception) {
+            exception.printStackTrace();
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void rotate() throws IOException {
+        if (this.channel != null) this.channel.close();
+
+        Path file = this.directory.resolve("audit-" + System.currentTimeMillis() + ".log");
+        for (int i = 1; Files.exists(file); i++) {
+            file = this.directory.resolve("audit-" + System.currentTimeMillis() + "-" + i + ".log");
+        }
+
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        ByteBuffer header = ByteBuffer.allocate(AuditFormat.HEADER_SIZE);
+        header.put(AuditFormat.MAGIC).putInt(AuditFormat.VERSION).flip();
+        while (header.hasRemaining()) {
+            this.channel.write(header);
+        }
+        this.fileBytes = AuditFormat.HEADER_SIZE;
+    }
+}
@@ -0,0 +1,113 @@
+package com.jazzkuh.commandlib.common.audit;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads the files written by {@link AuditLog}. Can be run from the command line to export a file or a directory of
+ * files:
+ * <pre>java -cp commandlib.jar com.jazzkuh.commandlib.common.audit.AuditLogReader &lt;file or directory&gt; [--json]</pre>
+ */
+public class AuditLogReader {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: AuditLogReader <file or directory> [--json]");
+            System.exit(1);
+            return;
+        }
+
+        boolean json = Arrays.asList(args).contains("--json");
+        for (Path file : files(Path.of(args[0]))) {
+            read(file, record -> System.out.println(json ? toJson(record) : toText(record)));
+        }
+    }
+
+    /**
+     * Reads every record in the file. A record that was only partially written, for example because the server
+     * crashed during a flush, ends the file.
+     */
+    public static void read(Path file, Consumer<AuditRecord> consumer) throws IOException {
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream input = new DataInputStream(new BufferedInputStream(stream))) {
+            byte[] magic = new byte[AuditFormat.MAGIC.length];
+            input.readFully(magic);
+            if (!Arrays.equals(magic, AuditFormat.MAGIC)) throw new IOException(file + " is not an audit log");
+
+            int version = input.readInt();
+            if (version != AuditFormat.VERSION) throw new IOException("Unsupported audit log version " + version);
+
+            while (true) {
+                int length;
+                try {
+                    length = input.readInt();
+                } catch (EOFException exception) {
+                    return;
+                }
+
+                byte[] payload = new byte[length];
+                try {
+                    input.readFully(payload);
+                } catch (EOFException exception) {
+                    return;
+                }
+
+                consumer.accept(AuditFormat.decode(new DataInputStream(new ByteArrayInputStream(payload))));
+            }
+        }
+    }
+
+    public static String toText(AuditRecord record) {
+        return Instant.ofEpochMilli(record.timestamp()) + " " + record.sender() + " /" + record.command()
+                + (record.subCommand().equals(record.command()) ? "" : " [" + record.subCommand() + "]")
+                + (record.arguments().isEmpty() ? "" : " " + record.arguments())
+                + " -> " + (record.isSuccess() ? "OK" : record.outcome())
+                + " (" + record.latencyNanos() / 1000 + "us)";
+    }
+
+    public static String toJson(AuditRecord record) {
+        return "{\"timestamp\":" + record.timestamp()
+                + ",\"senderKey\":" + record.senderKey()
+                + ",\"sender\":" + quote(record.sender())
+                + ",\"command\":" + quote(record.command())
+                + ",\"subCommand\":" + quote(record.subCommand())
+                + ",\"arguments\":" + quote(record.arguments())
+                + ",\"outcome\":" + (record.isSuccess() ? "null" : quote(record.outcome()))
+                + ",\"latencyNanos\":" + record.latencyNanos() + "}";
+    }
+
+    private static List<Path> files(Path path) throws IOException {
+        if (!Files.isDirectory(path)) return List.of(path);
+        try (Stream<Path> stream = Files.list(path)) {
+            return stream.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private static String quote(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (char character : value.toCharArray()) {
+            switch (character) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (character < 0x20) builder.append(String.format("\\u%04x", (int) character));
+                    else builder.append(character);
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+}
@@ -0,0 +1,17 @@
+package com.jazzkuh.commandlib.common.audit;
+
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A single executed command as stored in the audit log.
+ *
+ * @param outcome the simple name of the exception the command failed with, or {@code null} on success
+ */
+public record AuditRecord(@Getter long timestamp, @Getter long senderKey, @Getter String sender, @Getter String command,
+                          @Getter String subCommand, @Getter String arguments, @Getter @Nullable String outcome,
+                          @Getter long latencyNanos) {
+    public boolean isSuccess() {
+        return this.outcome == null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.jazzkuh.commandlib.common.audit;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded multi-producer, single-consumer ring buffer. Every slot carries a sequence number that tells producers
+ * whether it is free and the consumer whether it is filled, so neither side ever takes a lock and a full buffer makes
+ * {@link #offer} fail instead of blocking.
+ */
+final class AuditRingBuffer {
+    private final AtomicReferenceArray<AuditRecord> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final int mask;
+    private long tail;
+
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    boolean offer(AuditRecord record) {
+        while (true) {
+            long position = this.head.get();
+            int index = (int) (position & this.mask);
+            long difference = this.sequences.get(index) - position;
+
+            if (difference < 0) return false;
+            if (difference == 0 && this.head.compareAndSet(position, position + 1)) {
+                this.slots.lazySet(index, record);
+                this.sequences.set(index, position + 1);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Only called from the single consumer thread.
+     */
+    @Nullable
+    AuditRecord poll() {
+        int index = (int) (this.tail & this.mask);
+        if (this.sequences.get(index) != this.tail + 1) return null;
+
+        AuditRecord record = this.slots.get(index);
+        this.slots.lazySet(index, null);
+        this.sequences.lazySet(index, this.tail + this.mask + 1);
+        this.tail++;
+        return record;
+    }
+}
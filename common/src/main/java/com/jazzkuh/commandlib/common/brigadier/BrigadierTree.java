@@ -0,0 +1,193 @@
+package com.jazzkuh.commandlib.common.brigadier;
+
+import com.jazzkuh.commandlib.common.AnnotationParameter;
+import com.jazzkuh.commandlib.common.AnnotationSubCommand;
+import com.jazzkuh.commandlib.common.SenderOverloads;
+import com.jazzkuh.commandlib.common.options.OptionSpec;
+import com.jazzkuh.commandlib.common.permission.CommandVisibility;
+import com.jazzkuh.commandlib.common.resolvers.Resolvers;
+import com.jazzkuh.commandlib.common.resolvers.Variadics;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.arguments.BoolArgumentType;
+import com.mojang.brigadier.arguments.DoubleArgumentType;
+import com.mojang.brigadier.arguments.FloatArgumentType;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.LongArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.builder.RequiredArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import com.mojang.brigadier.tree.CommandNode;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+/**
+ * Translates the parsed subcommands of a command into a typed Brigadier tree, so the client can parse and complete
+ * literals, numbers, booleans and enum constants itself. Every node executes and completes through the hooks of the
+ * platform, which hand the input to the regular dispatch path, so usage messages and argument resolution stay
+ * identical to commands that are not sent as a tree.
+ * <p>
+ * Platforms only supply the source type and how a source maps to a sender; the shape of the tree is built here.
+ */
+public abstract class BrigadierTree<S> {
+    private static final int MAX_ENUM_LITERALS = 32;
+
+    private final List<AnnotationSubCommand> mainCommands;
+    private final List<AnnotationSubCommand> subCommands;
+    private final CommandVisibility visibility;
+    private final SenderOverloads overloads;
+
+    protected BrigadierTree(List<AnnotationSubCommand> mainCommands, List<AnnotationSubCommand> subCommands, CommandVisibility visibility, SenderOverloads overloads) {
+        this.mainCommands = mainCommands;
+        this.subCommands = subCommands;
+        this.visibility = visibility;
+        this.overloads = overloads;
+    }
+
+    public LiteralCommandNode<S> build(String label) {
+        LiteralArgumentBuilder<S> root = LiteralArgumentBuilder.<S>literal(label)
+                .requires(this::hasPermission)
+                .executes(this::execute);
+
+        for (AnnotationSubCommand mainCommand : this.mainCommands) {
+            if (!this.overloads.isPrimary(mainCommand)) continue;
+            for (CommandNode<S> node : this.argumentNodes(mainCommand, this.requirement(mainCommand))) {
+                root.then(node);
+            }
+        }
+
+        for (AnnotationSubCommand subCommand : this.subCommands) {
+            if (!this.overloads.isPrimary(subCommand)) continue;
+            String[] name = subCommand.getName().trim().split("\\s+");
+            root.then(this.literalChain(name, 0, subCommand));
+
+            for (String alias : subCommand.getAliases()) {
+                root.then(this.literalChain(new String[]{alias}, 0, subCommand));
+            }
+        }
+
+        return root.build();
+    }
+
+    /**
+     * Executes the input of the context through the regular dispatch path.
+     */
+    protected abstract int execute(CommandContext<S> context) throws CommandSyntaxException;
+
+    /**
+     * Completes the input of the builder through the regular completion path.
+     */
+    protected abstract CompletableFuture<Suggestions> suggest(CommandContext<S> context, SuggestionsBuilder builder) throws CommandSyntaxException;
+
+    /**
+     * Whether the source may use the command at all.
+     */
+    protected abstract boolean hasPermission(S source);
+
+    /**
+     * The platform sender of the source, as matched against the sender parameter of a subcommand.
+     */
+    protected abstract Object sender(S source);
+
+    /**
+     * The visibility bitset of the source, see {@link CommandVisibility#resolve(long, Predicate)}.
+     */
+    protected abstract long[] visible(S source);
+
+    private CommandNode<S> literalChain(String[] name, int index, AnnotationSubCommand subCommand) {
+        LiteralArgumentBuilder<S> literal = LiteralArgumentBuilder.<S>literal(name[index].toLowerCase())
+                .executes(this::execute);
+
+        if (index < name.length - 1) {
+            return literal.then(this.literalChain(name, index + 1, subCommand)).build();
+        }
+
+        literal.requires(this.requirement(subCommand));
+        for (CommandNode<S> node : this.argumentNodes(subCommand, source -> true)) {
+            literal.then(node);
+        }
+        return literal.build();
+    }
+
+    private List<CommandNode<S>> argumentNodes(AnnotationSubCommand subCommand, Predicate<S> requirement) {
+        if (OptionSpec.of(subCommand.getMethod()).isEmpty()) return this.parameterNodes(subCommand.getParameters(), 0, requirement);
+
+        // options can appear anywhere, so the whole remainder is left to the regular option parser
+        return List.of(RequiredArgumentBuilder.<S, String>argument("arguments", StringArgumentType.greedyString())
+                .requires(requirement)
+                .suggests(this::suggest)
+                .executes(this::execute)
+                .build());
+    }
+
+    private List<CommandNode<S>> parameterNodes(List<AnnotationParameter> parameters, int index, Predicate<S> requirement) {
+        if (index >= parameters.size()) return List.of();
+
+        AnnotationParameter parameter = parameters.get(index);
+        boolean last = parameter.isGreedy() || Variadics.isVariadic(parameter.getType());
+        List<CommandNode<S>> children = last ? List.of() : this.parameterNodes(parameters, index + 1, source -> true);
+
+        List<CommandNode<S>> nodes = new ArrayList<>();
+        for (ArgumentBuilder<S, ?> builder : this.builders(parameter)) {
+            builder.requires(requirement).executes(this::execute);
+            for (CommandNode<S> child : children) {
+                builder.then(child);
+            }
+            nodes.add(builder.build());
+        }
+
+        return nodes;
+    }
+
+    private List<ArgumentBuilder<S, ?>> builders(AnnotationParameter parameter) {
+        Class<?> type = parameter.getType();
+        if (parameter.isGreedy() || Variadics.isVariadic(type)) return List.of(this.dynamic(parameter, StringArgumentType.greedyString()));
+
+        if (type == int.class || type == Integer.class) return List.of(argument(parameter, IntegerArgumentType.integer()));
+        if (type == long.class || type == Long.class) return List.of(argument(parameter, LongArgumentType.longArg()));
+        if (type == double.class || type == Double.class) return List.of(argument(parameter, DoubleArgumentType.doubleArg()));
+        if (type == float.class || type == Float.class) return List.of(argument(parameter, FloatArgumentType.floatArg()));
+        if (type == boolean.class || type == Boolean.class) return List.of(argument(parameter, BoolArgumentType.bool()));
+
+        if (type.isEnum() && parameter.getCompletion() == null && type.getEnumConstants().length <= MAX_ENUM_LITERALS) {
+            List<ArgumentBuilder<S, ?>> literals = new ArrayList<>();
+            for (Object constant : type.getEnumConstants()) {
+                literals.add(LiteralArgumentBuilder.<S>literal(((Enum<?>) constant).name().toLowerCase()));
+            }
+            return literals;
+        }
+
+        return List.of(this.dynamic(parameter, StringArgumentType.string()));
+    }
+
+    private RequiredArgumentBuilder<S, String> dynamic(AnnotationParameter parameter, ArgumentType<String> argumentType) {
+        RequiredArgumentBuilder<S, String> builder = argument(parameter, argumentType);
+        Class<?> type = Variadics.isVariadic(parameter.getType()) ? Variadics.elementType(parameter.getParameter()) : parameter.getType();
+        if (type.isEnum() || parameter.getCompletion() != null || Resolvers.completion(type) != null) {
+            builder.suggests(this::suggest);
+        }
+
+        return builder;
+    }
+
+    private Predicate<S> requirement(AnnotationSubCommand subCommand) {
+        if (this.overloads.variants(subCommand).stream().allMatch(variant -> variant.getPermission() == null)) return source -> true;
+        // a sender that no variant accepts is rejected with a sender error when executing instead
+        return source -> {
+            AnnotationSubCommand variant = this.overloads.select(subCommand, this.sender(source));
+            return variant == null || this.visibility.isVisible(this.visible(source), variant);
+        };
+    }
+
+    private static <S, T> RequiredArgumentBuilder<S, T> argument(AnnotationParameter parameter, ArgumentType<T> argumentType) {
+        return RequiredArgumentBuilder.argument(parameter.getName(), argumentType);
+    }
+}
@@ -1,8 +1,25 @@
 package com.jazzkuh.commandlib.common.chat;
 
 import com.jazzkuh.commandlib.common.exception.CommandException;
+import com.jazzkuh.commandlib.common.exception.CooldownException;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
+
+import java.util.List;
 
 public interface FormattingProvider {
     Component formatError(CommandException commandException, String message);
+
+    default Component formatCooldown(CooldownException cooldownException) {
+        return this.formatError(cooldownException, cooldownException.getMessage());
+    }
+
+    default Component formatSuggestions(String commandName, List<String> suggestions) {
+        StringBuilder message = new StringBuilder("Unknown subcommand. Did you mean ");
+        for (int i = 0; i < suggestions.size(); i++) {
+            if (i > 0) message.append(i == suggestions.size() - 1 ? " or " : ", ");
+            message.append("/").append(commandName).append(" ").append(suggestions.get(i));
+        }
+        return Component.text(message.append("?").toString(), TextColor.fromHexString("#FBFB00"));
+    }
 }
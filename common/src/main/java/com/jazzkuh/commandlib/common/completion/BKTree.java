@@ -0,0 +1,142 @@
+package com.jazzkuh.commandlib.common.completion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A Burkhard-Keller tree over case-insensitive words, keyed by Levenshtein distance. A search only descends into the
+ * children whose edge distance lies within the tolerance of the distance to the current node, so it visits a small
+ * part of the tree. Not thread safe while it is being built; searching a finished tree is.
+ */
+public final class BKTree<T> {
+    private Node<T> root;
+    private int size;
+
+    /**
+     * Adds a word with its value, replacing the value of an existing word.
+     */
+    public void add(String word, T value) {
+        String key = word.toLowerCase();
+        if (this.root == null) {
+            this.root = new Node<>(key, value);
+            this.size++;
+            return;
+        }
+
+        Node<T> node = this.root;
+        while (true) {
+            int distance = distance(key, node.key);
+            if (distance == 0) {
+                node.value = value;
+                return;
+            }
+
+            Node<T> child = node.child(distance);
+            if (child == null) {
+                node.add(distance, new Node<>(key, value));
+                this.size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the values of the words within the given distance, closest first and at most {@code limit} of them
+     */
+    public List<Match<T>> search(String word, int maxDistance, int limit) {
+        List<Match<T>> matches = new ArrayList<>();
+        if (this.root == null || limit <= 0) return matches;
+
+        String key = word.toLowerCase();
+        List<Node<T>> pending = new ArrayList<>();
+        pending.add(this.root);
+        while (!pending.isEmpty()) {
+            Node<T> node = pending.remove(pending.size() - 1);
+            int distance = distance(key, node.key);
+            if (distance <= maxDistance) matches.add(new Match<>(node.key, node.value, distance));
+
+            for (int i = 0; i < node.childCount; i++) {
+                int edge = node.distances[i];
+                if (edge >= distance - maxDistance && edge <= distance + maxDistance) pending.add(node.children[i]);
+            }
+        }
+
+        matches.sort((first, second) -> first.distance() != second.distance()
+                ? Integer.compare(first.distance(), second.distance())
+                : first.word().compareTo(second.word()));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    static int distance(String first, String second) {
+        if (first.equals(second)) return 0;
+        if (first.isEmpty()) return second.length();
+        if (second.isEmpty()) return first.length();
+
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) previous[j] = j;
+
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            char c = first.charAt(i - 1);
+            for (int j = 1; j <= second.length(); j++) {
+                int cost = c == second.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[second.length()];
+    }
+
+    public record Match<T>(String word, T value, int distance) {
+    }
+
+    private static final class Node<T> {
+        private final String key;
+        private T value;
+        private int[] distances = new int[0];
+        private Node<T>[] children = newArray(0);
+        private int childCount;
+
+        private Node(String key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        private Node<T> child(int distance) {
+            for (int i = 0; i < this.childCount; i++) {
+                if (this.distances[i] == distance) return this.children[i];
+            }
+            return null;
+        }
+
+        private void add(int distance, Node<T> child) {
+            if (this.childCount == this.distances.length) {
+                int capacity = Math.max(2, this.childCount * 2);
+                int[] distances = new int[capacity];
+                Node<T>[] children = newArray(capacity);
+                System.arraycopy(this.distances, 0, distances, 0, this.childCount);
+                System.arraycopy(this.children, 0, children, 0, this.childCount);
+                this.distances = distances;
+                this.children = children;
+            }
+
+            this.distances[this.childCount] = distance;
+            this.children[this.childCount] = child;
+            this.childCount++;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Node<T>[] newArray(int length) {
+            return (Node<T>[]) new Node[length];
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.jazzkuh.commandlib.common.completion;
+
+import com.jazzkuh.commandlib.common.ratelimit.RateLimits;
+import com.jazzkuh.commandlib.common.tokenizer.ArgumentTokenizer;
+import com.jazzkuh.commandlib.common.tokenizer.ArgumentTokens;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sits in front of the platform completion code and remembers the last request of every sender. A request for the
+ * same input as one that is still being computed joins it, a request that only extends the last token of the
+ * previous input is answered by filtering the previous result, and a result that was superseded by a newer request
+ * while it was computed is dropped.
+ * <p>
+ * Platforms that complete asynchronously use {@link #complete}, which defers requests that arrive within the minimum
+ * interval and cannot reuse anything until the interval ends, and then computes them on the common fork-join pool.
+ * Platforms that complete on their main or packet thread use {@link #completeNow}, which never blocks or leaves the
+ * calling thread and answers such requests with no candidates instead.
+ * <p>
+ * Reusing a previous result assumes completion resolvers return every candidate that matches the partial input,
+ * without capping the list, which is what the built-in resolvers do. Results for a quoted token are never reused, as they are fitted to the
+ * whitespace inside the quotes.
+ */
+public final class CompletionCoalescer {
+    private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int SWEEP_INTERVAL = 1024;
+
+    private final long minimumIntervalNanos;
+    private final ConcurrentHashMap<Long, State> states = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    public CompletionCoalescer(long minimumInterval, TimeUnit unit) {
+        this.minimumIntervalNanos = unit.toNanos(minimumInterval);
+    }
+
+    public CompletionCoalescer() {
+        this(50, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param key   the sender key, see {@link com.jazzkuh.commandlib.common.AnnotationCommandImpl#getSenderKey(Object)}
+     * @param input the full input of the request, including the command name
+     */
+    public CompletableFuture<List<String>> complete(long key, String input, Supplier<List<String>> completer) {
+        if (key == RateLimits.EXEMPT) return CompletableFuture.completedFuture(completer.get());
+        if ((this.requests.incrementAndGet() & (SWEEP_INTERVAL - 1)) == 0) this.sweep(System.nanoTime());
+
+        State state = this.states.computeIfAbsent(key, ignored -> new State());
+        long now = System.nanoTime();
+        long generation;
+        CompletableFuture<List<String>> future;
+
+        synchronized (state) {
+            generation = ++state.generation;
+            state.lastAccess = now;
+
+            if (state.inFlight != null && input.equals(state.inFlightInput)) return state.inFlight;
+            if (state.result != null && extendsToken(state.input, input)) {
+                state.input = input;
+                state.result = filter(state.result, input);
+                return CompletableFuture.completedFuture(state.result);
+            }
+
+            future = new CompletableFuture<>();
+            state.inFlight = future;
+            state.inFlightInput = input;
+
+            long remaining = state.result == null ? 0 : this.minimumIntervalNanos - (now - state.computedAt);
+            if (remaining > 0) {
+                CompletableFuture.delayedExecutor(remaining, TimeUnit.NANOSECONDS).execute(() -> {
+                    try {
+                        this.compute(state, generation, input, completer, future);
+                    } catch (RuntimeException ignored) {
+                        // the future already completed exceptionally
+                    }
+                });
+                return future;
+            }
+        }
+
+        this.compute(state, generation, input, completer, future);
+        return future;
+    }
+
+    /**
+     * Answers the request on the calling thread. A request within the minimum interval that cannot reuse the previous
+     * result, or that arrives while another request of the sender is being computed, gets no candidates.
+     *
+     * @param key   the sender key, see {@link com.jazzkuh.commandlib.common.AnnotationCommandImpl#getSenderKey(Object)}
+     * @param input the full input of the request, including the command name
+     */
+    public List<String> completeNow(long key, String input, Supplier<List<String>> completer) {
+        if (key == RateLimits.EXEMPT) return completer.get();
+        if ((this.requests.incrementAndGet() & (SWEEP_INTERVAL - 1)) == 0) this.sweep(System.nanoTime());
+
+        State state = this.states.computeIfAbsent(key, ignored -> new State());
+        long now = System.nanoTime();
+        long generation;
+
+        synchronized (state) {
+            generation = ++state.generation;
+            state.lastAccess = now;
+
+            if (state.result != null && extendsToken(state.input, input)) {
+                state.input = input;
+                state.result = filter(state.result, input);
+                return state.result;
+            }
+
+            if (state.computing || (state.result != null && now - state.computedAt < this.minimumIntervalNanos)) return List.of();
+            state.computing = true;
+        }
+
+        List<String> result = null;
+        try {
+            result = List.copyOf(completer.get());
+            return result;
+        } finally {
+            synchronized (state) {
+                state.computing = false;
+                if (result != null && state.generation == generation) {
+                    state.input = input;
+                    state.result = result;
+                    state.computedAt = now;
+                }
+            }
+        }
+    }
+
+    private void compute(State state, long generation, String input, Supplier<List<String>> completer, CompletableFuture<List<String>> future) {
+        synchronized (state) {
+            // a deferred request that a newer one superseded while waiting is not computed at all
+            if (state.generation != generation && state.inFlight != future) {
+                future.complete(List.of());
+                return;
+            }
+        }
+
+        long now = System.nanoTime();
+        List<String> result;
+        try {
+            result = List.copyOf(completer.get());
+        } catch (RuntimeException exception) {
+            synchronized (state) {
+                if (state.inFlight == future) state.inFlight = null;
+            }
+            future.completeExceptionally(exception);
+            throw exception;
+        }
+
+        boolean superseded;
+        synchronized (state) {
+            if (state.inFlight == future) state.inFlight = null;
+            superseded = state.generation != generation;
+            if (!superseded) {
+                state.input = input;
+                state.result = result;
+                state.computedAt = now;
+            }
+        }
+
+        future.complete(superseded ? List.of() : result);
+    }
+
+    public void forget(long key) {
+        this.states.remove(key);
+    }
+
+    private void sweep(long now) {
+        this.states.values().removeIf(state -> {
+            synchronized (state) {
+                return state.inFlight == null && !state.computing && now - state.lastAccess > IDLE_NANOS;
+            }
+        });
+    }
+
+    private static boolean extendsToken(String previous, String input) {
+        if (input.length() < previous.length() || !input.startsWith(previous)) return false;
+
+        ArgumentTokens before = ArgumentTokenizer.tokenize(previous);
+        ArgumentTokens after = ArgumentTokenizer.tokenize(input);
+        if (count(before) != count(after)) return false;
+        if (after.isTrailing() || after.size() == 0) return true;
+        return !after.isOpen() && !after.isQuoted(after.size() - 1);
+    }
+
+    /**
+     * @return the number of arguments, counting the empty one that trailing whitespace starts
+     */
+    private static int count(ArgumentTokens tokens) {
+        return tokens.size() + (tokens.isTrailing() ? 1 : 0);
+    }
+
+    private static List<String> filter(List<String> candidates, String input) {
+        ArgumentTokens tokens = ArgumentTokenizer.tokenize(input);
+        String token = tokens.isTrailing() || tokens.size() == 0 ? "" : tokens.get(tokens.size() - 1);
+        List<String> filtered = new ArrayList<>(candidates.size());
+        for (String candidate : candidates) {
+            // completions with whitespace were quoted to come back as a single argument
+            int offset = candidate.startsWith("\"") ? 1 : 0;
+            if (candidate.regionMatches(true, offset, token, 0, token.length())) filtered.add(candidate);
+        }
+        return List.copyOf(filtered);
+    }
+
+    private static final class State {
+        private long generation;
+        private long lastAccess;
+        private long computedAt;
+        private String input;
+        private List<String> result;
+        private CompletableFuture<List<String>> inFlight;
+        private String inFlightInput;
+        private boolean computing;
+    }
+}
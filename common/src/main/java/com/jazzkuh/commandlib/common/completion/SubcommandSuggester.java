@@ -0,0 +1,51 @@
+package com.jazzkuh.commandlib.common.completion;
+
+import com.jazzkuh.commandlib.common.AnnotationSubCommand;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Suggests the subcommand names and aliases closest to an unknown first argument. The words are indexed in a
+ * {@link BKTree} once when the command is created; for subcommands with multi-word names the first word is indexed.
+ */
+public final class SubcommandSuggester {
+    private static final int LIMIT = 3;
+
+    private final BKTree<List<AnnotationSubCommand>> tree = new BKTree<>();
+
+    public SubcommandSuggester(List<AnnotationSubCommand> subCommands) {
+        Map<String, List<AnnotationSubCommand>> words = new LinkedHashMap<>();
+        for (AnnotationSubCommand subCommand : subCommands) {
+            words.computeIfAbsent(subCommand.getName().trim().split("\\s+")[0].toLowerCase(), word -> new ArrayList<>()).add(subCommand);
+            for (String alias : subCommand.getAliases()) {
+                words.computeIfAbsent(alias.toLowerCase(), word -> new ArrayList<>()).add(subCommand);
+            }
+        }
+
+        for (Map.Entry<String, List<AnnotationSubCommand>> entry : words.entrySet()) {
+            this.tree.add(entry.getKey(), List.copyOf(entry.getValue()));
+        }
+    }
+
+    /**
+     * @param permitted whether the sender may use a subcommand, so hidden subcommands are never suggested
+     * @return up to three words, closest first, or an empty list if nothing is close enough
+     */
+    public List<String> suggest(String input, Predicate<AnnotationSubCommand> permitted) {
+        if (this.tree.size() == 0 || input.isEmpty()) return List.of();
+
+        // allow one typo in short words and up to three in long ones
+        int maxDistance = input.length() <= 3 ? 1 : input.length() <= 7 ? 2 : 3;
+        List<String> suggestions = new ArrayList<>(LIMIT);
+        for (BKTree.Match<List<AnnotationSubCommand>> match : this.tree.search(input, maxDistance, LIMIT * 2)) {
+            if (match.value().stream().noneMatch(permitted)) continue;
+            suggestions.add(match.word());
+            if (suggestions.size() == LIMIT) break;
+        }
+        return suggestions;
+    }
+}
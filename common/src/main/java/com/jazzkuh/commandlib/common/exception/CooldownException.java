@@ -0,0 +1,12 @@
+package com.jazzkuh.commandlib.common.exception;
+
+import lombok.Getter;
+
+public class CooldownException extends CommandException {
+    @Getter private final long remainingMillis;
+
+    public CooldownException(long remainingMillis) {
+        super("You must wait " + Math.max(1, (remainingMillis + 999) / 1000) + " seconds before using this command again.");
+        this.remainingMillis = remainingMillis;
+    }
+}
@@ -0,0 +1,7 @@
+package com.jazzkuh.commandlib.common.exception;
+
+public class SenderException extends CommandException {
+    public SenderException() {
+        super("This command cannot be executed by this type of sender.");
+    }
+}
@@ -0,0 +1,11 @@
+package com.jazzkuh.commandlib.common.help;
+
+import com.jazzkuh.commandlib.common.AnnotationCommandImpl;
+import com.jazzkuh.commandlib.common.AnnotationSubCommand;
+import lombok.Getter;
+
+/**
+ * A single syntax in the {@link HelpIndex}, with the full command line it is invoked with.
+ */
+public record HelpEntry(@Getter AnnotationCommandImpl command, @Getter AnnotationSubCommand subCommand, @Getter String syntax) {
+}
@@ -0,0 +1,180 @@
+package com.jazzkuh.commandlib.common.help;
+
+import com.jazzkuh.commandlib.common.AnnotationCommandImpl;
+import com.jazzkuh.commandlib.common.AnnotationSubCommand;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * An inverted index over the names, aliases, descriptions and usages of every registered command, built incrementally
+ * as commands are registered. A search matches entries that contain every query term, either as a whole word or as
+ * the start of one, and ranks them by the fields the terms occur in. Permissions are checked per search, once for
+ * every distinct permission among the matches.
+ */
+public final class HelpIndex {
+    private static final HelpIndex GLOBAL = new HelpIndex();
+
+    private static final int NAME = 1;
+    private static final int ALIAS = 2;
+    private static final int DESCRIPTION = 4;
+    private static final int USAGE = 8;
+
+    private final List<HelpEntry> entries = new ArrayList<>();
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    private final BitSet removed = new BitSet();
+
+    /**
+     * @return the index that platform modules add their commands to on registration
+     */
+    public static HelpIndex global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Indexes the syntaxes of a command, replacing the ones it was indexed with before.
+     */
+    public synchronized void add(AnnotationCommandImpl command, List<AnnotationSubCommand> mainCommands, List<AnnotationSubCommand> subCommands) {
+        this.remove(command);
+        if (this.removed.cardinality() > this.entries.size() / 2) this.compact();
+
+        for (AnnotationSubCommand mainCommand : mainCommands) {
+            this.add(new HelpEntry(command, mainCommand, "/" + command.getCommandName() + mainCommand.getUsage()));
+        }
+
+        for (AnnotationSubCommand subCommand : subCommands) {
+            this.add(new HelpEntry(command, subCommand, "/" + command.getCommandName() + " " + subCommand.getName() + subCommand.getUsage()));
+        }
+    }
+
+    /**
+     * Removes the syntaxes of a command from search results. Their postings are dropped once removed entries make up
+     * half of the index.
+     */
+    public synchronized void remove(AnnotationCommandImpl command) {
+        for (int i = 0; i < this.entries.size(); i++) {
+            if (this.entries.get(i).command() == command) this.removed.set(i);
+        }
+    }
+
+    /**
+     * @param permitted whether the searching sender has a permission
+     * @return at most {@code limit} entries that match every term of the query, best matches first
+     */
+    public synchronized List<HelpEntry> search(String query, Predicate<String> permitted, int limit) {
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) return List.of();
+
+        int[] scores = new int[this.entries.size()];
+        int[] matched = new int[this.entries.size()];
+        int[] stamps = new int[this.entries.size()];
+        for (int t = 0; t < terms.size(); t++) {
+            String term = terms.get(t);
+            int stamp = t + 1;
+            for (Map.Entry<String, PostingList> posting : this.postings.tailMap(term, true).entrySet()) {
+                if (!posting.getKey().startsWith(term)) break;
+
+                int boost = posting.getKey().length() == term.length() ? 2 : 1;
+                posting.getValue().forEach((entry, fields) -> {
+                    scores[entry] += weight(fields) * boost;
+                    if (stamps[entry] == stamp) return;
+                    stamps[entry] = stamp;
+                    matched[entry]++;
+                });
+            }
+        }
+
+        Map<String, Boolean> permissions = new HashMap<>();
+        List<Integer> results = new ArrayList<>();
+        for (int i = 0; i < matched.length; i++) {
+            if (matched[i] != terms.size() || this.removed.get(i)) continue;
+
+            String permission = this.entries.get(i).subCommand().getPermission();
+            if (permission != null && !permissions.computeIfAbsent(permission, permitted::test)) continue;
+            results.add(i);
+        }
+
+        results.sort((first, second) -> scores[first] != scores[second]
+                ? Integer.compare(scores[second], scores[first])
+                : this.entries.get(first).syntax().compareTo(this.entries.get(second).syntax()));
+
+        List<HelpEntry> entries = new ArrayList<>(Math.min(limit, results.size()));
+        for (int i = 0; i < results.size() && entries.size() < limit; i++) {
+            HelpEntry entry = this.entries.get(results.get(i));
+            // variants of a subcommand for different sender types share their syntax and sort next to each other
+            HelpEntry previous = entries.isEmpty() ? null : entries.get(entries.size() - 1);
+            if (previous != null && previous.command() == entry.command() && previous.syntax().equals(entry.syntax())) continue;
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private void add(HelpEntry entry) {
+        // main commands are named after their command, so indexing both names covers main and subcommands alike
+        Map<String, Integer> terms = new LinkedHashMap<>();
+        index(terms, entry.command().getCommandName(), NAME);
+        index(terms, entry.subCommand().getName(), NAME);
+        for (String alias : entry.subCommand().getAliases()) {
+            index(terms, alias, ALIAS);
+        }
+        index(terms, entry.subCommand().getDescription(), DESCRIPTION);
+        index(terms, entry.subCommand().getUsage(), USAGE);
+
+        int id = this.entries.size();
+        this.entries.add(entry);
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            this.postings.computeIfAbsent(term.getKey(), key -> new PostingList()).add(id, term.getValue());
+        }
+    }
+
+    private void compact() {
+        List<HelpEntry> live = new ArrayList<>(this.entries.size() - this.removed.cardinality());
+        for (int i = 0; i < this.entries.size(); i++) {
+            if (!this.removed.get(i)) live.add(this.entries.get(i));
+        }
+
+        this.entries.clear();
+        this.postings.clear();
+        this.removed.clear();
+        for (HelpEntry entry : live) {
+            this.add(entry);
+        }
+    }
+
+    private static void index(Map<String, Integer> terms, String text, int field) {
+        if (text == null) return;
+        for (String term : tokenize(text)) {
+            terms.merge(term, field, (first, second) -> first | second);
+        }
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) start = i;
+            if (!word && start >= 0) {
+                terms.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static int weight(int fields) {
+        if ((fields & NAME) != 0) return 4;
+        if ((fields & ALIAS) != 0) return 3;
+        if ((fields & DESCRIPTION) != 0) return 2;
+        return 1;
+    }
+}
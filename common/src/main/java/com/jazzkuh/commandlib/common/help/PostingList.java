@@ -0,0 +1,50 @@
+package com.jazzkuh.commandlib.common.help;
+
+/**
+ * The entries a term occurs in, in ascending order. Every posting is the distance to the previous entry id as a
+ * variable length integer followed by a byte with the fields the term occurs in, so most postings take two bytes.
+ */
+final class PostingList {
+    private byte[] data = new byte[8];
+    private int length;
+    private int last = -1;
+
+    void add(int entry, int fields) {
+        if (this.length + 6 > this.data.length) {
+            byte[] grown = new byte[this.data.length * 2];
+            System.arraycopy(this.data, 0, grown, 0, this.length);
+            this.data = grown;
+        }
+
+        int delta = entry - this.last;
+        while ((delta & ~0x7F) != 0) {
+            this.data[this.length++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        this.data[this.length++] = (byte) delta;
+        this.data[this.length++] = (byte) fields;
+        this.last = entry;
+    }
+
+    void forEach(Visitor visitor) {
+        int entry = -1;
+        int i = 0;
+        while (i < this.length) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = this.data[i++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            entry += delta;
+            visitor.visit(entry, this.data[i++]);
+        }
+    }
+
+    interface Visitor {
+        void visit(int entry, int fields);
+    }
+}
@@ -0,0 +1,33 @@
+package com.jazzkuh.commandlib.common.interceptor;
+
+import com.jazzkuh.commandlib.common.exception.CommandException;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Hooks into the dispatch of every subcommand. Interceptors are registered through {@link Interceptors} and compiled
+ * into a fixed chain per subcommand; {@link #before} runs in registration order, {@link #after} and {@link #onError}
+ * in reverse order.
+ */
+public interface CommandInterceptor {
+    /**
+     * @return the annotation a subcommand method needs to carry for this interceptor to apply, or {@code null} to
+     * apply to every subcommand
+     */
+    default @Nullable Class<? extends Annotation> annotation() {
+        return null;
+    }
+
+    /**
+     * Called before the arguments are resolved. Throwing aborts the dispatch.
+     */
+    default void before(CommandInvocation invocation) throws CommandException {
+    }
+
+    default void after(CommandInvocation invocation) {
+    }
+
+    default void onError(CommandInvocation invocation, CommandException exception) {
+    }
+}
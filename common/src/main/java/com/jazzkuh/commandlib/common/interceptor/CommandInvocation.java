@@ -0,0 +1,51 @@
+package com.jazzkuh.commandlib.common.interceptor;
+
+import com.jazzkuh.commandlib.common.AnnotationCommandImpl;
+import lombok.Getter;
+
+import java.lang.reflect.Method;
+
+/**
+ * The dispatch an interceptor is looking at. Instances are pooled per thread and reused once the dispatch finishes,
+ * so they must not be retained by an interceptor.
+ */
+public final class CommandInvocation {
+    private static final ThreadLocal<CommandInvocation> POOL = new ThreadLocal<>();
+
+    @Getter private AnnotationCommandImpl command;
+    @Getter private String subCommand;
+    @Getter private Method method;
+    @Getter private Object sender;
+    @Getter private String[] arguments;
+    @Getter private long startNanos;
+    private CommandInvocation next;
+
+    private CommandInvocation() {
+    }
+
+    static CommandInvocation acquire(AnnotationCommandImpl command, String subCommand, Method method, Object sender, String[] arguments) {
+        CommandInvocation invocation = POOL.get();
+        if (invocation == null) {
+            invocation = new CommandInvocation();
+        } else {
+            POOL.set(invocation.next);
+        }
+
+        invocation.command = command;
+        invocation.subCommand = subCommand;
+        invocation.method = method;
+        invocation.sender = sender;
+        invocation.arguments = arguments;
+        invocation.startNanos = System.nanoTime();
+        invocation.next = null;
+        return invocation;
+    }
+
+    void release() {
+        this.command = null;
+        this.sender = null;
+        this.arguments = null;
+        this.next = POOL.get();
+        POOL.set(this);
+    }
+}
@@ -0,0 +1,51 @@
+package com.jazzkuh.commandlib.common.interceptor;
+
+import com.jazzkuh.commandlib.common.AnnotationCommandImpl;
+import com.jazzkuh.commandlib.common.exception.CommandException;
+
+import java.lang.reflect.Method;
+
+/**
+ * The interceptors that apply to a single subcommand method, compiled into a fixed array.
+ */
+public final class InterceptorChain {
+    static final InterceptorChain EMPTY = new InterceptorChain(new CommandInterceptor[0], -1);
+
+    private final CommandInterceptor[] interceptors;
+    final int version;
+
+    InterceptorChain(CommandInterceptor[] interceptors, int version) {
+        this.interceptors = interceptors;
+        this.version = version;
+    }
+
+    public boolean isEmpty() {
+        return this.interceptors.length == 0;
+    }
+
+    public CommandInvocation begin(AnnotationCommandImpl command, String subCommand, Method method, Object sender, String[] arguments) {
+        return CommandInvocation.acquire(command, subCommand, method, sender, arguments);
+    }
+
+    public void before(CommandInvocation invocation) throws CommandException {
+        for (CommandInterceptor interceptor : this.interceptors) {
+            interceptor.before(invocation);
+        }
+    }
+
+    public void after(CommandInvocation invocation) {
+        for (int i = this.interceptors.length - 1; i >= 0; i--) {
+            this.interceptors[i].after(invocation);
+        }
+    }
+
+    public void onError(CommandInvocation invocation, CommandException exception) {
+        for (int i = this.interceptors.length - 1; i >= 0; i--) {
+            this.interceptors[i].onError(invocation, exception);
+        }
+    }
+
+    public void end(CommandInvocation invocation) {
+        invocation.release();
+    }
+}
@@ -0,0 +1,24 @@
+package com.jazzkuh.commandlib.common.interceptor;
+
+import java.lang.reflect.Method;
+
+/**
+ * Holds the compiled interceptor chain of a single subcommand method on the subcommand itself, so dispatching reads a
+ * field instead of looking the chain up. The chain is compiled on first use and only compiled again after an
+ * interceptor is registered or unregistered.
+ */
+public final class InterceptorSlot {
+    private final Method method;
+    private volatile InterceptorChain chain;
+
+    public InterceptorSlot(Method method) {
+        this.method = method;
+    }
+
+    public InterceptorChain get() {
+        InterceptorChain current = this.chain;
+        InterceptorChain chain = Interceptors.chain(this.method, current);
+        if (chain != current) this.chain = chain;
+        return chain;
+    }
+}
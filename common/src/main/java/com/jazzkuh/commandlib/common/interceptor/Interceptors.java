@@ -0,0 +1,55 @@
+package com.jazzkuh.commandlib.common.interceptor;
+
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@UtilityClass
+public class Interceptors {
+    private static volatile Registration registration = new Registration(new CommandInterceptor[0], 0);
+
+    public static synchronized void register(CommandInterceptor interceptor) {
+        CommandInterceptor[] interceptors = registration.interceptors();
+        CommandInterceptor[] updated = Arrays.copyOf(interceptors, interceptors.length + 1);
+        updated[interceptors.length] = interceptor;
+        registration = new Registration(updated, registration.version() + 1);
+    }
+
+    public static synchronized void unregister(CommandInterceptor interceptor) {
+        List<CommandInterceptor> updated = new ArrayList<>(Arrays.asList(registration.interceptors()));
+        if (!updated.remove(interceptor)) return;
+
+        registration = new Registration(updated.toArray(new CommandInterceptor[0]), registration.version() + 1);
+    }
+
+    /**
+     * Returns the chain for the given subcommand method, reusing the previously compiled chain unless an interceptor
+     * was registered or unregistered since. Subcommands keep their chain in an {@link InterceptorSlot}.
+     */
+    static InterceptorChain chain(Method method, @Nullable InterceptorChain previous) {
+        // the interceptors and their version are published together, so a chain never pairs one with the other's
+        Registration current = registration;
+        if (current.interceptors().length == 0) return InterceptorChain.EMPTY;
+        if (previous != null && previous.version == current.version()) return previous;
+
+        return compile(method, current);
+    }
+
+    private static InterceptorChain compile(Method method, Registration registration) {
+        List<CommandInterceptor> applicable = new ArrayList<>();
+        for (CommandInterceptor interceptor : registration.interceptors()) {
+            Class<? extends Annotation> annotation = interceptor.annotation();
+            if (annotation == null || method.isAnnotationPresent(annotation)) applicable.add(interceptor);
+        }
+
+        return new InterceptorChain(applicable.toArray(new CommandInterceptor[0]), registration.version());
+    }
+
+    private record Registration(CommandInterceptor[] interceptors, int version) {
+    }
+}
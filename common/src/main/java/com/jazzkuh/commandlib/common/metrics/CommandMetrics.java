@@ -0,0 +1,41 @@
+package com.jazzkuh.commandlib.common.metrics;
+
+import com.jazzkuh.commandlib.common.exception.CommandException;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+public interface CommandMetrics {
+    CommandMetrics NOOP = new CommandMetrics() {
+        @Override
+        public void recordPhase(String command, String subCommand, CommandPhase phase, long nanos) {
+        }
+
+        @Override
+        public void recordOutcome(String command, String subCommand, @Nullable CommandException exception, long nanos) {
+        }
+
+        @Override
+        public void recordCompletion(String command, long nanos) {
+        }
+
+        @Override
+        public CommandMetricsSnapshot snapshot() {
+            return new CommandMetricsSnapshot(List.of());
+        }
+    };
+
+    void recordPhase(String command, String subCommand, CommandPhase phase, long nanos);
+
+    /**
+     * Records the outcome of a single invocation.
+     *
+     * @param exception the exception the invocation failed with, or null if it succeeded
+     * @param nanos the total time spent dispatching the invocation
+     */
+    void recordOutcome(String command, String subCommand, @Nullable CommandException exception, long nanos);
+
+    void recordCompletion(String command, long nanos);
+
+    CommandMetricsSnapshot snapshot();
+}
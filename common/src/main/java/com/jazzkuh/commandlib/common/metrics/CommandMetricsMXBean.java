@@ -0,0 +1,17 @@
+package com.jazzkuh.commandlib.common.metrics;
+
+import java.util.Map;
+
+public interface CommandMetricsMXBean {
+    long getInvocations();
+
+    long getFailures();
+
+    long getCompletionRequests();
+
+    Map<String, Long> getInvocationCounts();
+
+    String[] getReport();
+
+    String[] getStartupReport();
+}
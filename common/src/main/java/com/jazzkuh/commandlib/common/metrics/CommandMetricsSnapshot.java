@@ -0,0 +1,48 @@
+package com.jazzkuh.commandlib.common.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public record CommandMetricsSnapshot(List<CommandSnapshot> commands) {
+    public long invocations() {
+        return this.commands.stream().flatMap(command -> command.subCommands().stream()).mapToLong(SubCommandSnapshot::invocations).sum();
+    }
+
+    public long failures() {
+        return this.commands.stream().flatMap(command -> command.subCommands().stream()).mapToLong(SubCommandSnapshot::failureCount).sum();
+    }
+
+    public long completionRequests() {
+        return this.commands.stream().mapToLong(CommandSnapshot::completionRequests).sum();
+    }
+
+    public List<String> format() {
+        List<String> lines = new ArrayList<>();
+        for (CommandSnapshot command : this.commands) {
+            lines.add("/" + command.command() + " (completions: " + command.completionLatency().format() + ")");
+            for (SubCommandSnapshot subCommand : command.subCommands()) {
+                lines.add("  " + subCommand.name() + ": " + subCommand.invocations() + " invocations, "
+                        + subCommand.successes() + " succeeded, " + subCommand.failures());
+                lines.add("    total: " + subCommand.total().format());
+                for (Map.Entry<CommandPhase, LatencySnapshot> phase : subCommand.phases().entrySet()) {
+                    if (phase.getValue().count() == 0) continue;
+                    lines.add("    " + phase.getKey().name().toLowerCase() + ": " + phase.getValue().format());
+                }
+            }
+        }
+
+        return lines;
+    }
+
+    public record CommandSnapshot(String command, long completionRequests, LatencySnapshot completionLatency,
+                                  List<SubCommandSnapshot> subCommands) {
+    }
+
+    public record SubCommandSnapshot(String name, long invocations, long successes, Map<String, Long> failures,
+                                     Map<CommandPhase, LatencySnapshot> phases, LatencySnapshot total) {
+        public long failureCount() {
+            return this.invocations - this.successes;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.jazzkuh.commandlib.common.metrics;
+
+public enum CommandPhase {
+    PARSE,
+    RESOLVE,
+    PERMISSION,
+    INVOKE
+}
@@ -0,0 +1,107 @@
+package com.jazzkuh.commandlib.common.metrics;
+
+import com.jazzkuh.commandlib.common.exception.CommandException;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class DefaultCommandMetrics implements CommandMetrics {
+    private static final CommandPhase[] PHASES = CommandPhase.values();
+
+    private final ConcurrentHashMap<String, CommandStats> commands = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordPhase(String command, String subCommand, CommandPhase phase, long nanos) {
+        this.stats(command).subCommand(subCommand).phases[phase.ordinal()].record(nanos);
+    }
+
+    @Override
+    public void recordOutcome(String command, String subCommand, @Nullable CommandException exception, long nanos) {
+        SubCommandStats stats = this.stats(command).subCommand(subCommand);
+        stats.invocations.increment();
+        stats.total.record(nanos);
+
+        if (exception == null) {
+            stats.successes.increment();
+            return;
+        }
+
+        LongAdder failures = stats.failures.get(exception.getClass());
+        if (failures == null) failures = stats.failures.computeIfAbsent(exception.getClass(), type -> new LongAdder());
+        failures.increment();
+    }
+
+    @Override
+    public void recordCompletion(String command, long nanos) {
+        CommandStats stats = this.stats(command);
+        stats.completionRequests.increment();
+        stats.completionLatency.record(nanos);
+    }
+
+    @Override
+    public CommandMetricsSnapshot snapshot() {
+        List<CommandMetricsSnapshot.CommandSnapshot> snapshots = new ArrayList<>();
+        this.commands.forEach((name, stats) -> snapshots.add(stats.snapshot(name)));
+        return new CommandMetricsSnapshot(snapshots);
+    }
+
+    public void reset() {
+        this.commands.clear();
+    }
+
+    private CommandStats stats(String command) {
+        CommandStats stats = this.commands.get(command);
+        if (stats != null) return stats;
+        return this.commands.computeIfAbsent(command, name -> new CommandStats());
+    }
+
+    private static final class CommandStats {
+        private final ConcurrentHashMap<String, SubCommandStats> subCommands = new ConcurrentHashMap<>();
+        private final LongAdder completionRequests = new LongAdder();
+        private final LatencyHistogram completionLatency = new LatencyHistogram();
+
+        private SubCommandStats subCommand(String name) {
+            SubCommandStats stats = this.subCommands.get(name);
+            if (stats != null) return stats;
+            return this.subCommands.computeIfAbsent(name, key -> new SubCommandStats());
+        }
+
+        private CommandMetricsSnapshot.CommandSnapshot snapshot(String name) {
+            List<CommandMetricsSnapshot.SubCommandSnapshot> snapshots = new ArrayList<>();
+            this.subCommands.forEach((subCommand, stats) -> snapshots.add(stats.snapshot(subCommand)));
+            return new CommandMetricsSnapshot.CommandSnapshot(name, this.completionRequests.sum(), this.completionLatency.snapshot(), snapshots);
+        }
+    }
+
+    private static final class SubCommandStats {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder successes = new LongAdder();
+        private final ConcurrentHashMap<Class<? extends CommandException>, LongAdder> failures = new ConcurrentHashMap<>();
+        private final LatencyHistogram[] phases = new LatencyHistogram[PHASES.length];
+        private final LatencyHistogram total = new LatencyHistogram();
+
+        private SubCommandStats() {
+            for (int i = 0; i < this.phases.length; i++) {
+                this.phases[i] = new LatencyHistogram();
+            }
+        }
+
+        private CommandMetricsSnapshot.SubCommandSnapshot snapshot(String name) {
+            Map<String, Long> failures = new LinkedHashMap<>();
+            this.failures.forEach((type, count) -> failures.put(type.getSimpleName(), count.sum()));
+
+            Map<CommandPhase, LatencySnapshot> phases = new EnumMap<>(CommandPhase.class);
+            for (CommandPhase phase : PHASES) {
+                phases.put(phase, this.phases[phase.ordinal()].snapshot());
+            }
+
+            return new CommandMetricsSnapshot.SubCommandSnapshot(name, this.invocations.sum(), this.successes.sum(), failures, phases, this.total.snapshot());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.jazzkuh.commandlib.common.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class JmxMetricsExporter implements CommandMetricsMXBean {
+    private static final String DEFAULT_NAME = "com.jazzkuh.commandlib:type=CommandMetrics";
+
+    private final CommandMetrics metrics;
+    private final ObjectName objectName;
+
+    public JmxMetricsExporter(CommandMetrics metrics) {
+        this(metrics, DEFAULT_NAME);
+    }
+
+    public JmxMetricsExporter(CommandMetrics metrics, String objectName) {
+        this.metrics = metrics;
+        try {
+            this.objectName = new ObjectName(objectName);
+        } catch (JMException exception) {
+            throw new IllegalArgumentException("Invalid JMX object name: " + objectName, exception);
+        }
+    }
+
+    public void register() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(this.objectName)) server.unregisterMBean(this.objectName);
+        server.registerMBean(this, this.objectName);
+    }
+
+    public void unregister() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(this.objectName)) server.unregisterMBean(this.objectName);
+    }
+
+    @Override
+    public long getInvocations() {
+        return this.metrics.snapshot().invocations();
+    }
+
+    @Override
+    public long getFailures() {
+        return this.metrics.snapshot().failures();
+    }
+
+    @Override
+    public long getCompletionRequests() {
+        return this.metrics.snapshot().completionRequests();
+    }
+
+    @Override
+    public Map<String, Long> getInvocationCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (CommandMetricsSnapshot.CommandSnapshot command : this.metrics.snapshot().commands()) {
+            for (CommandMetricsSnapshot.SubCommandSnapshot subCommand : command.subCommands()) {
+                counts.put(command.command() + " " + subCommand.name(), subCommand.invocations());
+            }
+        }
+
+        return counts;
+    }
+
+    @Override
+    public String[] getReport() {
+        return this.metrics.snapshot().format().toArray(new String[0]);
+    }
+
+    @Override
+    public String[] getStartupReport() {
+        return StartupProfiler.report().format().toArray(new String[0]);
+    }
+}
@@ -0,0 +1,16 @@
+package com.jazzkuh.commandlib.common.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+public record LatencySnapshot(long count, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos) {
+    public static final LatencySnapshot EMPTY = new LatencySnapshot(0, 0, 0, 0, 0, 0);
+
+    public String format() {
+        return "n=" + this.count + " mean=" + micros(this.meanNanos) + " p50=" + micros(this.p50Nanos)
+                + " p90=" + micros(this.p90Nanos) + " p99=" + micros(this.p99Nanos) + " max=" + micros(this.maxNanos);
+    }
+
+    private static String micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos) + "us";
+    }
+}
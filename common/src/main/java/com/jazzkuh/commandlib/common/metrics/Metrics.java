@@ -0,0 +1,9 @@
+package com.jazzkuh.commandlib.common.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+
+public class Metrics {
+    @Getter @Setter
+    private static CommandMetrics commandMetrics = CommandMetrics.NOOP;
+}
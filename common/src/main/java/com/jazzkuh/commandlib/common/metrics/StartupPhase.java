@@ -0,0 +1,24 @@
+package com.jazzkuh.commandlib.common.metrics;
+
+public enum StartupPhase {
+    /**
+     * The whole constructor of a command class, when it is instantiated by the command registry.
+     */
+    CONSTRUCTION,
+    /**
+     * Listing the methods of the command class.
+     */
+    REFLECTION,
+    /**
+     * Reading the annotations and building the subcommand model, or loading it from the metadata cache.
+     */
+    PARSE,
+    /**
+     * Building what the platform dispatches through, such as completion trees, visibility masks and argument syntaxes.
+     */
+    BINDING,
+    /**
+     * Registering the command with the platform.
+     */
+    REGISTRATION
+}
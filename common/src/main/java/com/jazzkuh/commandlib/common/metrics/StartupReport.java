@@ -0,0 +1,49 @@
+package com.jazzkuh.commandlib.common.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @param commands the timings per command class, slowest first
+ */
+public record StartupReport(List<CommandTiming> commands) {
+    public long totalNanos() {
+        return this.commands.stream().mapToLong(CommandTiming::totalNanos).sum();
+    }
+
+    public List<String> format() {
+        List<String> lines = new ArrayList<>();
+        lines.add("Command startup: " + this.commands.size() + " classes, " + millis(this.totalNanos()) + " total");
+        for (CommandTiming command : this.commands) {
+            StringBuilder line = new StringBuilder("  ").append(command.className()).append(": ").append(millis(command.totalNanos()));
+            for (Map.Entry<StartupPhase, Long> phase : command.phases().entrySet()) {
+                if (phase.getValue() == 0) continue;
+                line.append(", ").append(phase.getKey().name().toLowerCase()).append(' ').append(millis(phase.getValue()));
+            }
+            lines.add(line.toString());
+        }
+
+        return lines;
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2fms", nanos / 1_000_000.0);
+    }
+
+    /**
+     * @param phases the time spent per phase, construction includes reflection, parsing and binding
+     */
+    public record CommandTiming(String className, Map<StartupPhase, Long> phases) {
+        public long totalNanos() {
+            // commands constructed outside the registry have no construction time of their own
+            long construction = Math.max(this.phase(StartupPhase.CONSTRUCTION),
+                    this.phase(StartupPhase.REFLECTION) + this.phase(StartupPhase.PARSE) + this.phase(StartupPhase.BINDING));
+            return construction + this.phase(StartupPhase.REGISTRATION);
+        }
+
+        private long phase(StartupPhase phase) {
+            return this.phases.getOrDefault(phase, 0L);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.jazzkuh.commandlib.common.options;
+
+import com.jazzkuh.commandlib.common.annotations.Flag;
+import com.jazzkuh.commandlib.common.annotations.Named;
+import com.jazzkuh.commandlib.common.exception.ArgumentException;
+import com.jazzkuh.commandlib.common.exception.CommandException;
+import com.jazzkuh.commandlib.common.exception.ContextResolverException;
+import com.jazzkuh.commandlib.common.exception.ParameterException;
+import com.jazzkuh.commandlib.common.resolvers.ContextResolver;
+import com.jazzkuh.commandlib.common.resolvers.Resolvers;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link Flag} and {@link Named} options of a subcommand method, precomputed into parallel arrays of option
+ * names and the method parameter slot each name fills. Parsing is a single pass over the arguments that splits them
+ * into positional arguments and option values without building any intermediate map.
+ */
+public final class OptionSpec {
+    public static final OptionSpec NONE = new OptionSpec(new String[0], new int[0], new boolean[0], new boolean[0], new String[0]);
+    private static final ConcurrentHashMap<Method, OptionSpec> SPECS = new ConcurrentHashMap<>();
+
+    private final String[] names;
+    private final int[] slots;
+    private final boolean[] flags;
+    private final boolean[] options;
+    private final String[] primaryNames;
+
+    private OptionSpec(String[] names, int[] slots, boolean[] flags, boolean[] options, String[] primaryNames) {
+        this.names = names;
+        this.slots = slots;
+        this.flags = flags;
+        this.options = options;
+        this.primaryNames = primaryNames;
+    }
+
+    public static OptionSpec of(Method method) {
+        OptionSpec spec = SPECS.get(method);
+        if (spec == null) spec = SPECS.computeIfAbsent(method, OptionSpec::compile);
+        return spec;
+    }
+
+    public static boolean isOption(Parameter parameter) {
+        return parameter.isAnnotationPresent(Flag.class) || parameter.isAnnotationPresent(Named.class);
+    }
+
+    /**
+     * Resolves the raw value of an option parameter, {@code null} when the option was absent.
+     */
+    public static Object resolve(Parameter parameter, String value) throws CommandException {
+        Class<?> type = parameter.getType();
+        if (parameter.isAnnotationPresent(Flag.class)) return value != null && !value.equalsIgnoreCase("false");
+        if (value == null) return type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+
+        ContextResolver<?> contextResolver = Resolvers.context(type);
+        Object resolvedObject = null;
+        if (contextResolver != null) {
+            resolvedObject = contextResolver.resolve(value);
+        } else if (type.isEnum()) {
+            try {
+                resolvedObject = Enum.valueOf((Class<? extends Enum>) type, value.toUpperCase());
+            } catch (IllegalArgumentException ignored) {
+            }
+        } else {
+            throw new ContextResolverException(type.getName());
+        }
+
+        if (resolvedObject == null) throw new ParameterException("Cannot resolver parameter " + value + " for type " + type.getSimpleName());
+        return resolvedObject;
+    }
+
+    public boolean isEmpty() {
+        return this.names.length == 0;
+    }
+
+    /**
+     * @param slot the index of the method parameter, including the sender
+     */
+    public boolean isOption(int slot) {
+        return slot < this.options.length && this.options[slot];
+    }
+
+    /**
+     * @return the primary name of every option, used for completion and usage messages
+     */
+    public String[] getNames() {
+        return this.primaryNames.clone();
+    }
+
+    /**
+     * @return the method parameter slot the name fills, or {@code -1} if it is not an option of this method
+     */
+    public int slot(String name) {
+        int index = this.index(name);
+        return index < 0 ? -1 : this.slots[index];
+    }
+
+    /**
+     * @return whether the token is the name of an option that takes its value from the next argument
+     */
+    public boolean takesValue(String token) {
+        int index = this.index(token);
+        return index >= 0 && !this.flags[index];
+    }
+
+    public ParsedArguments parse(String[] args) throws ArgumentException {
+        String[] positional = new String[args.length];
+        String[] values = new String[this.options.length];
+        int count = 0;
+        boolean terminated = false;
+
+        for (int i = 0; i < args.length; i++) {
+            String token = args[i];
+            if (terminated || token.length() < 2 || token.charAt(0) != '-') {
+                positional[count++] = token;
+                continue;
+            }
+
+            if (token.equals("--")) {
+                terminated = true;
+                continue;
+            }
+
+            int separator = token.indexOf('=');
+            int index = this.index(separator < 0 ? token : token.substring(0, separator));
+            if (index < 0) {
+                positional[count++] = token;
+                continue;
+            }
+
+            if (separator >= 0) {
+                values[this.slots[index]] = token.substring(separator + 1);
+            } else if (this.flags[index]) {
+                values[this.slots[index]] = "true";
+            } else {
+                if (i + 1 >= args.length) throw new ArgumentException();
+                values[this.slots[index]] = args[++i];
+            }
+        }
+
+        if (count == positional.length) return new ParsedArguments(positional, values);
+
+        String[] trimmed = new String[count];
+        System.arraycopy(positional, 0, trimmed, 0, count);
+        return new ParsedArguments(trimmed, values);
+    }
+
+    private int index(String name) {
+        for (int i = 0; i < this.names.length; i++) {
+            if (this.names[i].equalsIgnoreCase(name)) return i;
+        }
+        return -1;
+    }
+
+    private static OptionSpec compile(Method method) {
+        Parameter[] parameters = method.getParameters();
+        List<String> names = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<Boolean> flags = new ArrayList<>();
+        List<String> primaryNames = new ArrayList<>();
+        boolean[] options = new boolean[parameters.length];
+
+        for (int slot = 1; slot < parameters.length; slot++) {
+            Flag flag = parameters[slot].getAnnotation(Flag.class);
+            Named named = parameters[slot].getAnnotation(Named.class);
+            if (flag == null && named == null) continue;
+
+            options[slot] = true;
+            List<String> optionNames = new ArrayList<>();
+            if (flag != null) {
+                for (String name : flag.value()) optionNames.add(normalize(name));
+            } else {
+                optionNames.add(normalize(named.value()));
+                if (!named.alias().isEmpty()) optionNames.add(normalize(named.alias()));
+            }
+
+            primaryNames.add(optionNames.get(0));
+            for (String name : optionNames) {
+                names.add(name);
+                slots.add(slot);
+                flags.add(flag != null);
+            }
+        }
+
+        if (names.isEmpty()) return NONE;
+
+        int[] slotArray = new int[slots.size()];
+        boolean[] flagArray = new boolean[flags.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+            flagArray[i] = flags.get(i);
+        }
+        return new OptionSpec(names.toArray(new String[0]), slotArray, flagArray, options, primaryNames.toArray(new String[0]));
+    }
+
+    /**
+     * @return the name with its dashes, {@code -} for single letters and {@code --} otherwise
+     */
+    public static String normalize(String name) {
+        if (name.startsWith("-")) return name;
+        return name.length() == 1 ? "-" + name : "--" + name;
+    }
+
+    /**
+     * @param positional the arguments that are not options, in order
+     * @param values     the raw option values indexed by method parameter slot, {@code null} for absent options
+     */
+    public record ParsedArguments(String[] positional, String[] values) {
+    }
+}
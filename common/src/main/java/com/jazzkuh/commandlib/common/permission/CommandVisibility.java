@@ -0,0 +1,154 @@
+package com.jazzkuh.commandlib.common.permission;
+
+import com.jazzkuh.commandlib.common.AnnotationSubCommand;
+import com.jazzkuh.commandlib.common.ratelimit.RateLimits;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * The main and subcommands of a command that a sender may use, as a bitset indexed by the position of each
+ * subcommand. Every distinct permission is checked once per computation, and the result is cached per sender until
+ * the global permission version is bumped with {@link #invalidate()}, the sender is dropped with {@link #forget(long)}
+ * or the entry is older than thirty seconds, which bounds staleness on platforms that have no permission change
+ * events.
+ * <p>
+ * The cached bitsets are only used to decide what is shown; executing a subcommand always checks its permission
+ * directly.
+ */
+public final class CommandVisibility {
+    private static final AtomicLong VERSION = new AtomicLong();
+    private static final long MAX_AGE_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final int SWEEP_INTERVAL = 1024;
+    private static final Set<CommandVisibility> INSTANCES = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final Map<AnnotationSubCommand, Integer> indices = new IdentityHashMap<>();
+    private final String[] permissions;
+    private final int[] requirements;
+    private final long[] mainMask;
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    public CommandVisibility(List<AnnotationSubCommand> mainCommands, List<AnnotationSubCommand> subCommands) {
+        List<AnnotationSubCommand> commands = new ArrayList<>(mainCommands.size() + subCommands.size());
+        commands.addAll(mainCommands);
+        commands.addAll(subCommands);
+
+        Map<String, Integer> permissions = new LinkedHashMap<>();
+        this.requirements = new int[commands.size()];
+        this.mainMask = new long[(commands.size() + 63) >>> 6];
+        for (int i = 0; i < commands.size(); i++) {
+            AnnotationSubCommand command = commands.get(i);
+            this.indices.putIfAbsent(command, i);
+            this.requirements[i] = command.getPermission() == null ? -1 : permissions.computeIfAbsent(command.getPermission(), permission -> permissions.size());
+            if (i < mainCommands.size()) this.mainMask[i >>> 6] |= 1L << i;
+        }
+        this.permissions = permissions.keySet().toArray(new String[0]);
+        INSTANCES.add(this);
+    }
+
+    /**
+     * Marks every cached bitset as stale. Platform adapters call this when permissions change.
+     */
+    public static void invalidate() {
+        VERSION.incrementAndGet();
+    }
+
+    /**
+     * Drops the cached bitsets of a sender from every command, so they are computed again on the next request.
+     * Platform adapters call this when a player leaves and before the command tree of a player is sent again.
+     */
+    public static void forget(long key) {
+        synchronized (INSTANCES) {
+            for (CommandVisibility visibility : INSTANCES) {
+                visibility.entries.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @param key       the sender key, senders with {@link RateLimits#EXEMPT} are never cached
+     * @param permitted whether the sender has a permission
+     * @return the bitset of visible subcommands, which must not be modified
+     */
+    public long[] resolve(long key, Predicate<String> permitted) {
+        if (key == RateLimits.EXEMPT) return this.compute(permitted);
+
+        long version = VERSION.get();
+        long now = System.nanoTime();
+        Entry entry = this.entries.get(key);
+        if (entry != null && entry.version() == version && now - entry.computedAt() < MAX_AGE_NANOS) return entry.visible();
+
+        if ((this.requests.incrementAndGet() & (SWEEP_INTERVAL - 1)) == 0) this.sweep(now);
+        long[] visible = this.compute(permitted);
+        this.entries.put(key, new Entry(version, now, visible));
+        return visible;
+    }
+
+    public boolean isVisible(long[] visible, AnnotationSubCommand command) {
+        Integer index = this.indices.get(command);
+        if (index == null) return false;
+        return (visible[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * @return whether any main command is visible, {@code false} if there are none
+     */
+    public boolean anyMainVisible(long[] visible) {
+        for (int i = 0; i < this.mainMask.length; i++) {
+            if ((visible[i] & this.mainMask[i]) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the bitset with the bits of the given subcommands set, for testing several subcommands at once
+     */
+    public long[] mask(List<AnnotationSubCommand> commands) {
+        long[] mask = new long[this.mainMask.length];
+        for (AnnotationSubCommand command : commands) {
+            Integer index = this.indices.get(command);
+            if (index != null) mask[index >>> 6] |= 1L << index;
+        }
+        return mask;
+    }
+
+    public static boolean intersects(long[] visible, long[] mask) {
+        for (int i = 0; i < mask.length; i++) {
+            if ((visible[i] & mask[i]) != 0) return true;
+        }
+        return false;
+    }
+
+    private long[] compute(Predicate<String> permitted) {
+        boolean[] granted = new boolean[this.permissions.length];
+        for (int i = 0; i < this.permissions.length; i++) {
+            granted[i] = permitted.test(this.permissions[i]);
+        }
+
+        long[] visible = new long[this.mainMask.length];
+        for (int i = 0; i < this.requirements.length; i++) {
+            int requirement = this.requirements[i];
+            if (requirement < 0 || granted[requirement]) visible[i >>> 6] |= 1L << i;
+        }
+        return visible;
+    }
+
+    private void sweep(long now) {
+        this.entries.values().removeIf(entry -> now - entry.computedAt() >= MAX_AGE_NANOS);
+    }
+
+    private record Entry(long version, long computedAt, long[] visible) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.jazzkuh.commandlib.common.ratelimit;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+/**
+ * A lock-free map keyed by primitive longs. Every bin holds an immutable chain of nodes that is replaced as a whole
+ * with a compare-and-set, so readers never block and keys are never boxed. The bin count is fixed; entries are
+ * expected to be short-lived and removed again once they expire.
+ */
+final class ConcurrentLongMap<V> {
+    private final AtomicReferenceArray<Node<V>> bins;
+    private final AtomicInteger size = new AtomicInteger();
+    private final int mask;
+
+    ConcurrentLongMap(int capacity) {
+        int bins = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.bins = new AtomicReferenceArray<>(bins);
+        this.mask = bins - 1;
+    }
+
+    @Nullable
+    V get(long key) {
+        for (Node<V> node = this.bins.get(this.index(key)); node != null; node = node.next) {
+            if (node.key == key) return node.value;
+        }
+        return null;
+    }
+
+    V computeIfAbsent(long key, LongFunction<V> function) {
+        int index = this.index(key);
+        V created = null;
+        while (true) {
+            Node<V> head = this.bins.get(index);
+            for (Node<V> node = head; node != null; node = node.next) {
+                if (node.key == key) return node.value;
+            }
+
+            if (created == null) created = function.apply(key);
+            if (this.bins.compareAndSet(index, head, new Node<>(key, created, head))) {
+                this.size.incrementAndGet();
+                return created;
+            }
+        }
+    }
+
+    boolean remove(long key, V value) {
+        int index = this.index(key);
+        while (true) {
+            Node<V> head = this.bins.get(index);
+            Node<V> target = head;
+            while (target != null && (target.key != key || target.value != value)) target = target.next;
+            if (target == null) return false;
+
+            Node<V> replacement = target.next;
+            for (Node<V> node = head; node != target; node = node.next) {
+                replacement = new Node<>(node.key, node.value, replacement);
+            }
+
+            if (this.bins.compareAndSet(index, head, replacement)) {
+                this.size.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    int size() {
+        return this.size.get();
+    }
+
+    private int index(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & this.mask;
+    }
+
+    private record Node<V>(long key, V value, @Nullable Node<V> next) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.jazzkuh.commandlib.common.ratelimit;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongConsumer;
+
+/**
+ * A hashed timer wheel that has no thread of its own. Callers advance it with the current time, which drains every
+ * slot that has passed since the previous advance. Slots are lock-free stacks, so scheduling never blocks.
+ */
+final class HashedTimerWheel {
+    private final AtomicReferenceArray<Entry> slots;
+    private final AtomicLong lastTick;
+    private final long origin;
+    private final long tickNanos;
+    private final int mask;
+
+    HashedTimerWheel(int slots, long tickNanos, long now) {
+        int size = Integer.highestOneBit(Math.max(2, slots - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.tickNanos = tickNanos;
+        this.origin = now;
+        this.lastTick = new AtomicLong(0);
+    }
+
+    void schedule(long key, long deadline) {
+        this.scheduleTick(key, this.tick(deadline));
+    }
+
+    private void scheduleTick(long key, long deadlineTick) {
+        long tick = Math.max(deadlineTick, this.lastTick.get() + 1);
+        int index = (int) (tick & this.mask);
+        while (true) {
+            Entry head = this.slots.get(index);
+            if (this.slots.compareAndSet(index, head, new Entry(key, tick, head))) return;
+        }
+    }
+
+    /**
+     * Drains every slot that passed up to {@code now} and hands the due keys to {@code expired}, which is free to
+     * schedule them again if they turn out to still be in use.
+     */
+    void advance(long now, LongConsumer expired) {
+        long current = this.tick(now);
+        long previous = this.lastTick.get();
+        if (current <= previous || !this.lastTick.compareAndSet(previous, current)) return;
+
+        long last = Math.min(current, previous + this.mask + 1);
+        for (long tick = previous + 1; tick <= last; tick++) {
+            Entry entry = this.slots.getAndSet((int) (tick & this.mask), null);
+            for (; entry != null; entry = entry.next) {
+                if (entry.tick > current) this.scheduleTick(entry.key, entry.tick);
+                else expired.accept(entry.key);
+            }
+        }
+    }
+
+    private long tick(long time) {
+        return Math.max(0, (time - this.origin + this.tickNanos - 1) / this.tickNanos);
+    }
+
+    private record Entry(long key, long tick, @Nullable Entry next) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.jazzkuh.commandlib.common.ratelimit;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket per sender, stored as a single theoretical arrival time (GCRA) that is updated with a
+ * compare-and-set. A bucket that has fully refilled is indistinguishable from a missing one, so the timer wheel frees
+ * it once its arrival time has passed.
+ */
+public final class RateLimiter {
+    private static final long DEAD = Long.MIN_VALUE;
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long emissionNanos;
+    private final long toleranceNanos;
+    private final @Nullable String bypass;
+    private final ConcurrentLongMap<AtomicLong> buckets = new ConcurrentLongMap<>(1024);
+    private final HashedTimerWheel wheel;
+
+    public RateLimiter(int permits, long period, TimeUnit unit, @Nullable String bypass) {
+        if (permits < 1) throw new IllegalArgumentException("permits must be at least 1");
+        if (period < 1) throw new IllegalArgumentException("period must be at least 1");
+
+        long periodNanos = unit.toNanos(period);
+        this.emissionNanos = periodNanos / permits;
+        this.toleranceNanos = periodNanos - this.emissionNanos;
+        this.bypass = bypass == null || bypass.isEmpty() ? null : bypass;
+        this.wheel = new HashedTimerWheel(512, TICK_NANOS, System.nanoTime());
+    }
+
+    @Nullable
+    public String getBypass() {
+        return this.bypass;
+    }
+
+    /**
+     * Takes a permit for the given key.
+     *
+     * @return {@code 0} if a permit was taken, otherwise the nanoseconds until the next permit is available
+     */
+    public long tryAcquire(long key, long now) {
+        this.wheel.advance(now, expiredKey -> this.expire(expiredKey, now));
+
+        while (true) {
+            AtomicLong bucket = this.buckets.get(key);
+            if (bucket == null) {
+                AtomicLong created = new AtomicLong(now);
+                bucket = this.buckets.computeIfAbsent(key, ignored -> created);
+                if (bucket == created) this.wheel.schedule(key, now + this.emissionNanos);
+            }
+
+            long result = this.tryAcquire(bucket, now);
+            if (result >= 0) return result;
+        }
+    }
+
+    public int size() {
+        return this.buckets.size();
+    }
+
+    private long tryAcquire(AtomicLong bucket, long now) {
+        while (true) {
+            long arrival = bucket.get();
+            if (arrival == DEAD) return -1;
+
+            long base = arrival - now > 0 ? arrival : now;
+            long wait = base - now - this.toleranceNanos;
+            if (wait > 0) return wait;
+            if (bucket.compareAndSet(arrival, base + this.emissionNanos)) return 0;
+        }
+    }
+
+    private void expire(long key, long now) {
+        AtomicLong bucket = this.buckets.get(key);
+        if (bucket == null) return;
+
+        while (true) {
+            long arrival = bucket.get();
+            if (arrival == DEAD) return;
+            if (arrival - now > 0) {
+                this.wheel.schedule(key, arrival);
+                return;
+            }
+
+            if (bucket.compareAndSet(arrival, DEAD)) {
+                this.buckets.remove(key, bucket);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.jazzkuh.commandlib.common.ratelimit;
+
+import com.jazzkuh.commandlib.common.AnnotationCommandImpl;
+import com.jazzkuh.commandlib.common.annotations.Cooldown;
+import com.jazzkuh.commandlib.common.annotations.RateLimit;
+import com.jazzkuh.commandlib.common.exception.CooldownException;
+import lombok.experimental.UtilityClass;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@UtilityClass
+public class RateLimits {
+    /**
+     * Key returned by {@link AnnotationCommandImpl#getSenderKey(Object)} for senders that are never limited.
+     */
+    public static final long EXEMPT = Long.MIN_VALUE;
+
+    private static final RateLimiter[] NONE = new RateLimiter[0];
+    private static final ConcurrentHashMap<Method, RateLimiter[]> LIMITERS = new ConcurrentHashMap<>();
+
+    public static long key(UUID uuid) {
+        return uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+    }
+
+    /**
+     * Takes a permit from every {@link Cooldown} and {@link RateLimit} declared on the method, before any argument is
+     * resolved.
+     *
+     * @throws CooldownException if the sender has to wait before executing the method again
+     */
+    public static void acquire(AnnotationCommandImpl command, Method method, Object sender) throws CooldownException {
+        RateLimiter[] limiters = LIMITERS.get(method);
+        if (limiters == null) limiters = LIMITERS.computeIfAbsent(method, RateLimits::limiters);
+        if (limiters.length == 0) return;
+
+        long key = command.getSenderKey(sender);
+        if (key == EXEMPT) return;
+
+        long now = System.nanoTime();
+        long wait = 0;
+        for (RateLimiter limiter : limiters) {
+            if (limiter.getBypass() != null && command.hasBypass(sender, limiter.getBypass())) continue;
+            wait = Math.max(wait, limiter.tryAcquire(key, now));
+        }
+
+        if (wait > 0) throw new CooldownException(TimeUnit.NANOSECONDS.toMillis(wait));
+    }
+
+    public static void clear() {
+        LIMITERS.clear();
+    }
+
+    private static RateLimiter[] limiters(Method method) {
+        List<RateLimiter> limiters = new ArrayList<>();
+        Cooldown cooldown = method.getAnnotation(Cooldown.class);
+        if (cooldown != null) limiters.add(new RateLimiter(1, cooldown.value(), TimeUnit.SECONDS, cooldown.bypass()));
+
+        RateLimit rateLimit = method.getAnnotation(RateLimit.class);
+        if (rateLimit != null) limiters.add(new RateLimiter(rateLimit.permits(), rateLimit.per(), TimeUnit.SECONDS, rateLimit.bypass()));
+
+        return limiters.isEmpty() ? NONE : limiters.toArray(new RateLimiter[0]);
+    }
+}
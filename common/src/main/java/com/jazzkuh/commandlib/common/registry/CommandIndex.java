@@ -0,0 +1,116 @@
+package com.jazzkuh.commandlib.common.registry;
+
+import com.jazzkuh.commandlib.common.annotations.Command;
+import lombok.experimental.UtilityClass;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+@UtilityClass
+public class CommandIndex {
+    public static final String INDEX_RESOURCE = "META-INF/commandlib/commands.index";
+
+    /**
+     * Reads the command index generated at build time by {@link CommandIndexProcessor}.
+     *
+     * @param classLoader the class loader to read the index from and load the command classes with
+     * @return every indexed class annotated with {@link Command}, in index order
+     */
+    public static List<Class<?>> load(ClassLoader classLoader) {
+        Set<String> classNames = new LinkedHashSet<>();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(INDEX_RESOURCE);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        line = line.trim();
+                        if (!line.isEmpty() && !line.startsWith("#")) classNames.add(line);
+                    }
+                }
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to read command index", exception);
+        }
+
+        return loadClasses(classLoader, classNames);
+    }
+
+    /**
+     * Scans a package for classes annotated with {@link Command}. This is the fallback for projects that do not run
+     * the index processor and is considerably slower than {@link #load(ClassLoader)}.
+     */
+    public static List<Class<?>> scan(ClassLoader classLoader, String packageName) {
+        String path = packageName.replace('.', '/');
+        Set<String> classNames = new LinkedHashSet<>();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(path);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                if (resource.getProtocol().equals("jar")) {
+                    JarURLConnection connection = (JarURLConnection) resource.openConnection();
+                    connection.setUseCaches(false);
+                    try (JarFile jarFile = connection.getJarFile()) {
+                        Enumeration<JarEntry> entries = jarFile.entries();
+                        while (entries.hasMoreElements()) {
+                            String name = entries.nextElement().getName();
+                            if (name.startsWith(path + "/") && isClassFile(name)) classNames.add(toClassName(name));
+                        }
+                    }
+                } else if (resource.getProtocol().equals("file")) {
+                    Path root = Path.of(resource.toURI());
+                    try (Stream<Path> files = Files.walk(root)) {
+                        files.map(file -> path + "/" + root.relativize(file).toString().replace('\\', '/'))
+                                .filter(CommandIndex::isClassFile)
+                                .forEach(name -> classNames.add(toClassName(name)));
+                    }
+                }
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to scan package " + packageName, exception);
+        } catch (URISyntaxException exception) {
+            throw new IllegalArgumentException("Unable to scan package " + packageName, exception);
+        }
+
+        return loadClasses(classLoader, classNames);
+    }
+
+    private static List<Class<?>> loadClasses(ClassLoader classLoader, Set<String> classNames) {
+        List<Class<?>> classes = new ArrayList<>(classNames.size());
+        for (String className : classNames) {
+            try {
+                Class<?> type = Class.forName(className, false, classLoader);
+                if (type.isAnnotationPresent(Command.class)) classes.add(type);
+            } catch (ClassNotFoundException | LinkageError exception) {
+                throw new IllegalArgumentException("Unable to load command class " + className, exception);
+            }
+        }
+
+        return classes;
+    }
+
+    private static boolean isClassFile(String name) {
+        return name.endsWith(".class") && !name.endsWith("module-info.class") && !name.endsWith("package-info.class");
+    }
+
+    private static String toClassName(String name) {
+        return name.substring(0, name.length() - ".class".length()).replace('/', '.');
+    }
+}
@@ -0,0 +1,56 @@
+package com.jazzkuh.commandlib.common.registry;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Writes the fully qualified name of every concrete {@code @Command} class to {@link CommandIndex#INDEX_RESOURCE},
+ * so command classes can be discovered at startup without scanning the classpath.
+ */
+@SupportedAnnotationTypes("com.jazzkuh.commandlib.common.annotations.Command")
+public class CommandIndexProcessor extends AbstractProcessor {
+    private final Set<String> classNames = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnvironment.getElementsAnnotatedWith(annotation)) {
+                if (!(element instanceof TypeElement type) || type.getModifiers().contains(Modifier.ABSTRACT)) continue;
+                this.classNames.add(this.processingEnv.getElementUtils().getBinaryName(type).toString());
+            }
+        }
+
+        if (roundEnvironment.processingOver() && !this.classNames.isEmpty()) {
+            try {
+                FileObject index = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", CommandIndex.INDEX_RESOURCE);
+                try (Writer writer = index.openWriter()) {
+                    for (String className : this.classNames) {
+                        writer.write(className);
+                        writer.write('\n');
+                    }
+                }
+            } catch (IOException exception) {
+                this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write command index: " + exception.getMessage());
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,55 @@
+package com.jazzkuh.commandlib.common.registry;
+
+import com.jazzkuh.commandlib.common.metrics.StartupPhase;
+import com.jazzkuh.commandlib.common.metrics.StartupProfiler;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.UtilityClass;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@UtilityClass
+public class CommandRegistry {
+    /**
+     * Whether commands are constructed in parallel on the common fork-join pool. Disabled by default, as command
+     * constructors then run off the thread that registers them.
+     */
+    @Getter
+    @Setter
+    private static volatile boolean parallel = false;
+
+    /**
+     * Instantiates every class assignable to the given command type, in parallel if enabled. Command constructors do
+     * all of their reflection and parsing up front, so this is where startup time goes.
+     *
+     * @return the instantiated commands, in the order of the given classes
+     */
+    public static <T> List<T> instantiate(Collection<Class<?>> classes, Class<T> commandType) {
+        Stream<Class<?>> stream = parallel ? classes.parallelStream() : classes.stream();
+        return stream
+                .filter(commandType::isAssignableFrom)
+                .filter(type -> !Modifier.isAbstract(type.getModifiers()))
+                .map(type -> instantiate(type, commandType))
+                .toList();
+    }
+
+    private static <T> T instantiate(Class<?> type, Class<T> commandType) {
+        try {
+            long start = StartupProfiler.start();
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            T command = commandType.cast(constructor.newInstance());
+            StartupProfiler.stop(type, StartupPhase.CONSTRUCTION, start);
+            return command;
+        } catch (InvocationTargetException exception) {
+            throw new IllegalArgumentException("Unable to construct command " + type.getName(), exception.getCause());
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalArgumentException("Command " + type.getName() + " needs an accessible no-argument constructor", exception);
+        }
+    }
+}
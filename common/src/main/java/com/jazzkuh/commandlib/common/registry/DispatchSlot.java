@@ -0,0 +1,22 @@
+package com.jazzkuh.commandlib.common.registry;
+
+/**
+ * The command a platform registration dispatches to. Every instance that ever handled the registration shares one
+ * slot, so replacing a command is a single volatile write and dispatching reads a single reference, however often the
+ * command was replaced.
+ */
+public final class DispatchSlot<T> {
+    private volatile T target;
+
+    public DispatchSlot(T target) {
+        this.target = target;
+    }
+
+    public T get() {
+        return this.target;
+    }
+
+    public void set(T target) {
+        this.target = target;
+    }
+}
@@ -0,0 +1,389 @@
+package com.jazzkuh.commandlib.common.registry;
+
+import com.jazzkuh.commandlib.common.AnnotationCommandImpl;
+import com.jazzkuh.commandlib.common.AnnotationParameter;
+import com.jazzkuh.commandlib.common.AnnotationSubCommand;
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * A binary file with the parsed subcommands of every command class, so later starts skip reading annotations and
+ * building usage strings. Entries are keyed by class name and validated against a checksum of the class files of the
+ * class and its superclasses, so a changed class is parsed again and its entry replaced.
+ * <p>
+ * The file is memory mapped when it is opened and entries are only decoded when their class is parsed. A mapped file
+ * cannot be replaced on every platform, so each save writes a new generation next to the given path, named after it
+ * with a numeric suffix, and older generations are deleted the next time the cache is opened. Loading and storing
+ * may happen concurrently, as commands may be constructed in parallel.
+ */
+public final class MetadataCache {
+    private static final int MAGIC = 0x434C4D43;
+    private static final int VERSION = 2;
+    private static final int OPTIONAL = 1;
+    private static final int GREEDY = 2;
+    private static final int COMPLETION = 4;
+
+    @Getter
+    private static volatile MetadataCache active;
+
+    private final Path file;
+    private final long generation;
+    private final ByteBuffer buffer;
+    private final Map<String, Slice> slices = new HashMap<>();
+    private final Map<String, byte[]> written = new LinkedHashMap<>();
+    private long saved;
+    private boolean dirty;
+
+    private MetadataCache(Path file, long generation, ByteBuffer buffer) {
+        this.file = file;
+        this.generation = generation;
+        this.buffer = buffer;
+        this.saved = generation;
+    }
+
+    /**
+     * Opens the cache file, or starts an empty cache if it does not exist or is unreadable, and uses it for every
+     * command parsed from now on.
+     */
+    public static MetadataCache enable(Path file) {
+        MetadataCache cache = open(file);
+        active = cache;
+        return cache;
+    }
+
+    public static void disable() {
+        active = null;
+    }
+
+    /**
+     * Writes the active cache if commands were parsed that were not cached yet. Platform loaders call this after
+     * registering their commands.
+     */
+    public static void flush() {
+        MetadataCache cache = active;
+        if (cache == null) return;
+
+        try {
+            cache.save();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to write command metadata cache " + cache.file, exception);
+        }
+    }
+
+    public static MetadataCache open(Path file) {
+        List<Long> generations = generations(file);
+        if (generations.isEmpty()) return new MetadataCache(file, 0, null);
+
+        long generation = generations.get(generations.size() - 1);
+        for (long older : generations.subList(0, generations.size() - 1)) {
+            delete(generation(file, older));
+        }
+
+        try (FileChannel channel = FileChannel.open(generation(file, generation), StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            MetadataCache cache = new MetadataCache(file, generation, buffer);
+            cache.index();
+            return cache;
+        } catch (IOException | RuntimeException exception) {
+            return new MetadataCache(file, generation, null);
+        }
+    }
+
+    /**
+     * Fills the lists with the cached subcommands of the command class.
+     *
+     * @return whether the class was cached and unchanged, otherwise it has to be parsed through reflection
+     */
+    public boolean load(AnnotationCommandImpl command, List<AnnotationSubCommand> mainCommands, List<AnnotationSubCommand> subCommands) {
+        Class<?> type = command.getClass();
+        Slice slice = this.slices.get(type.getName());
+        if (slice == null || this.buffer == null) return false;
+
+        long checksum = checksum(type);
+        if (checksum == 0 || checksum != slice.checksum()) return false;
+
+        List<AnnotationSubCommand> mains = new ArrayList<>();
+        List<AnnotationSubCommand> subs = new ArrayList<>();
+        try {
+            ByteBuffer body = this.buffer.duplicate().position(slice.offset()).limit(slice.offset() + slice.length());
+            int count = body.getShort();
+            for (int i = 0; i < count; i++) {
+                boolean main = body.get() == 1;
+                AnnotationSubCommand subCommand = decode(command, body, main);
+                (main ? mains : subs).add(subCommand);
+            }
+        } catch (ReflectiveOperationException | BufferUnderflowException | IllegalArgumentException exception) {
+            return false;
+        }
+
+        for (AnnotationSubCommand subCommand : mains) {
+            subCommand.getInterceptors().get();
+        }
+        for (AnnotationSubCommand subCommand : subs) {
+            subCommand.getInterceptors().get();
+        }
+
+        mainCommands.addAll(mains);
+        subCommands.addAll(subs);
+        return true;
+    }
+
+    /**
+     * Records the subcommands of a command class that was parsed through reflection.
+     */
+    public void store(AnnotationCommandImpl command, List<AnnotationSubCommand> mainCommands, List<AnnotationSubCommand> subCommands) {
+        Class<?> type = command.getClass();
+        long checksum = checksum(type);
+        if (checksum == 0) return;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeLong(checksum);
+            output.writeShort(mainCommands.size() + subCommands.size());
+            for (AnnotationSubCommand subCommand : mainCommands) {
+                output.writeByte(1);
+                encode(output, subCommand);
+            }
+            for (AnnotationSubCommand subCommand : subCommands) {
+                output.writeByte(0);
+                encode(output, subCommand);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        synchronized (this) {
+            this.written.put(type.getName(), bytes.toByteArray());
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * Writes a new generation of the file if any class was stored since the last save, keeping the unchanged entries
+     * of classes that were not parsed in this run. The mapped generation is left in place until the next start.
+     */
+    public synchronized void save() throws IOException {
+        if (!this.dirty) return;
+
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        for (Map.Entry<String, Slice> slice : this.slices.entrySet()) {
+            if (this.written.containsKey(slice.getKey())) continue;
+
+            byte[] entry = new byte[8 + slice.getValue().length()];
+            ByteBuffer.wrap(entry).putLong(slice.getValue().checksum());
+            this.buffer.duplicate().position(slice.getValue().offset()).get(entry, 8, slice.getValue().length());
+            entries.put(slice.getKey(), entry);
+        }
+        entries.putAll(this.written);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(entries.size());
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                writeString(output, entry.getKey());
+                output.writeInt(entry.getValue().length - 8);
+                output.write(entry.getValue());
+            }
+        }
+
+        Path parent = this.file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        // the new generation never exists yet, so the move does not replace the file that is mapped
+        long generation = this.saved + 1;
+        Path temporary = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        Files.write(temporary, bytes.toByteArray());
+        Files.move(temporary, generation(this.file, generation), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (this.saved != this.generation) delete(generation(this.file, this.saved));
+        this.saved = generation;
+        this.dirty = false;
+    }
+
+    private void index() {
+        ByteBuffer buffer = this.buffer.duplicate();
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) throw new IllegalArgumentException("Unsupported metadata cache");
+
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            String className = readString(buffer);
+            int length = buffer.getInt();
+            long checksum = buffer.getLong();
+            this.slices.put(className, new Slice(checksum, buffer.position(), length));
+            buffer.position(buffer.position() + length);
+        }
+    }
+
+    private static void encode(DataOutputStream output, AnnotationSubCommand subCommand) throws IOException {
+        Method method = subCommand.getMethod();
+        writeString(output, method.getName());
+        output.writeByte(method.getParameterCount());
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            writeString(output, parameterType.getName());
+        }
+
+        for (AnnotationParameter parameter : subCommand.getParameters()) {
+            int flags = (parameter.isOptional() ? OPTIONAL : 0) | (parameter.isGreedy() ? GREEDY : 0) | (parameter.getCompletion() != null ? COMPLETION : 0);
+            output.writeByte(flags);
+            if (parameter.getCompletion() != null) writeString(output, parameter.getCompletion());
+        }
+
+        writeString(output, subCommand.getName());
+        writeString(output, subCommand.getUsage());
+        output.writeByte(subCommand.getAliases().size());
+        for (String alias : subCommand.getAliases()) {
+            writeString(output, alias);
+        }
+        writeString(output, subCommand.getDescription());
+        output.writeBoolean(subCommand.getPermission() != null);
+        if (subCommand.getPermission() != null) writeString(output, subCommand.getPermission());
+    }
+
+    private static AnnotationSubCommand decode(AnnotationCommandImpl command, ByteBuffer body, boolean main) throws ReflectiveOperationException {
+        Class<?> type = command.getClass();
+        String methodName = readString(body);
+        Class<?>[] parameterTypes = new Class<?>[body.get()];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            parameterTypes[i] = type(type.getClassLoader(), readString(body));
+        }
+
+        Method method = type.getMethod(methodName, parameterTypes);
+        Parameter[] parameters = method.getParameters();
+        List<AnnotationParameter> annotationParameters = new ArrayList<>(Math.max(0, parameters.length - 1));
+        for (int i = 1; i < parameters.length; i++) {
+            int flags = body.get();
+            String completion = (flags & COMPLETION) != 0 ? readString(body) : null;
+            annotationParameters.add(new AnnotationParameter(parameters[i].getName(), parameters[i].getType(),
+                    (flags & OPTIONAL) != 0, (flags & GREEDY) != 0, completion, parameters[i]));
+        }
+
+        String name = readString(body);
+        String usage = readString(body);
+        List<String> aliases = new ArrayList<>();
+        int aliasCount = body.get();
+        for (int i = 0; i < aliasCount; i++) {
+            aliases.add(readString(body));
+        }
+        String description = readString(body);
+        String permission = body.get() != 0 ? readString(body) : null;
+
+        // the name of a main command comes from the instance, several commands may share a class
+        if (main) name = command.getCommandName();
+        return new AnnotationSubCommand(name, usage, aliases, description, permission, method, List.copyOf(annotationParameters));
+    }
+
+    private static Class<?> type(ClassLoader classLoader, String name) throws ClassNotFoundException {
+        return switch (name) {
+            case "boolean" -> boolean.class;
+            case "byte" -> byte.class;
+            case "short" -> short.class;
+            case "char" -> char.class;
+            case "int" -> int.class;
+            case "long" -> long.class;
+            case "float" -> float.class;
+            case "double" -> double.class;
+            default -> Class.forName(name, false, classLoader);
+        };
+    }
+
+    private static Path generation(Path file, long generation) {
+        return file.resolveSibling(file.getFileName() + "." + generation);
+    }
+
+    /**
+     * @return the generations of the file that exist, oldest first
+     */
+    private static List<Long> generations(Path file) {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent == null || !Files.isDirectory(parent)) return List.of();
+
+        String prefix = file.getFileName() + ".";
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> siblings = Files.newDirectoryStream(parent, path -> path.getFileName().toString().startsWith(prefix))) {
+            for (Path sibling : siblings) {
+                try {
+                    long generation = Long.parseLong(sibling.getFileName().toString().substring(prefix.length()));
+                    if (generation > 0 && Files.isRegularFile(sibling)) generations.add(generation);
+                } catch (NumberFormatException ignored) {
+                    // the temporary file, or an unrelated file with the same prefix
+                }
+            }
+        } catch (IOException exception) {
+            return List.of();
+        }
+
+        generations.sort(null);
+        return generations;
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // still mapped by another process, removed on a later start
+        }
+    }
+
+    /**
+     * @return a checksum of the class files of the class and its superclasses up to the first JDK class, combined
+     * with their total length, or {@code 0} if one of them cannot be read
+     */
+    private static long checksum(Class<?> type) {
+        CRC32C crc = new CRC32C();
+        long length = 0;
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            ClassLoader classLoader = current.getClassLoader();
+            if (classLoader == null || classLoader == ClassLoader.getPlatformClassLoader()) break;
+
+            try (InputStream input = classLoader.getResourceAsStream(current.getName().replace('.', '/') + ".class")) {
+                if (input == null) return 0;
+
+                byte[] bytes = input.readAllBytes();
+                crc.update(bytes);
+                length += bytes.length;
+            } catch (IOException exception) {
+                return 0;
+            }
+        }
+
+        return length == 0 ? 0 : (length << 32) | crc.getValue();
+    }
+
+    private static void writeString(DataOutputStream output, @Nullable String value) throws IOException {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        output.writeShort(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record Slice(long checksum, int offset, int length) {
+    }
+}
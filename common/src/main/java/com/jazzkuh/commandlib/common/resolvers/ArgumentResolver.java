@@ -0,0 +1,19 @@
+package com.jazzkuh.commandlib.common.resolvers;
+
+/**
+ * Resolves an argument with access to the sender and the arguments before it. Unlike a {@link ContextResolver}, the
+ * input is not necessarily a {@link String} and a failure can carry a message for the sender.
+ */
+@FunctionalInterface
+public interface ArgumentResolver<T> {
+    ResolveResult<T> resolve(CharSequence input, ResolutionContext<?> context);
+
+    /**
+     * Adapts a legacy resolver, which resolves without context and fails with {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ArgumentResolver<T> adapt(ContextResolver<T> resolver) {
+        if (resolver instanceof ArgumentResolver<?> argumentResolver) return (ArgumentResolver<T>) argumentResolver;
+        return (input, context) -> ResolveResult.of(resolver.resolve(input.toString()));
+    }
+}
@@ -0,0 +1,32 @@
+package com.jazzkuh.commandlib.common.resolvers;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How a {@link CachedContextResolver} bounds its entries.
+ *
+ * @param maximumSize      the number of entries above which the least recently used ones are evicted
+ * @param expireAfterNanos how long an entry stays valid after it was resolved, or {@code 0} to never expire
+ * @param weakValues       whether values are weakly referenced, so game objects such as players and worlds are not
+ *                         kept alive by the cache
+ */
+public record CachePolicy(@Getter int maximumSize, @Getter long expireAfterNanos, @Getter boolean weakValues) {
+    public CachePolicy {
+        if (maximumSize < 1) throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        if (expireAfterNanos < 0) throw new IllegalArgumentException("Expiry must not be negative: " + expireAfterNanos);
+    }
+
+    public static CachePolicy bounded(int maximumSize) {
+        return new CachePolicy(maximumSize, 0, false);
+    }
+
+    public CachePolicy withExpiry(long duration, TimeUnit unit) {
+        return new CachePolicy(this.maximumSize, unit.toNanos(duration), this.weakValues);
+    }
+
+    public CachePolicy withWeakValues() {
+        return new CachePolicy(this.maximumSize, this.expireAfterNanos, true);
+    }
+}
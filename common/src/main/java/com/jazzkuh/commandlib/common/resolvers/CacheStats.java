@@ -0,0 +1,10 @@
+package com.jazzkuh.commandlib.common.resolvers;
+
+import lombok.Getter;
+
+public record CacheStats(@Getter long hits, @Getter long misses, @Getter long evictions, @Getter int size) {
+    public double hitRate() {
+        long requests = this.hits + this.misses;
+        return requests == 0 ? 1 : (double) this.hits / requests;
+    }
+}
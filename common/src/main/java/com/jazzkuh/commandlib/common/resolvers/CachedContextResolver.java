@@ -0,0 +1,124 @@
+package com.jazzkuh.commandlib.common.resolvers;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Caches the values of another {@link ContextResolver} by argument string. Lookups are lock free; once the cache grows
+ * past its maximum size, expired and collected entries are dropped first and then the least recently used tenth.
+ * Arguments that do not resolve are not cached, so a value that appears later is found on the next call.
+ */
+public final class CachedContextResolver<T> implements ContextResolver<T> {
+    private final ContextResolver<T> resolver;
+    private final CachePolicy policy;
+    private final ConcurrentHashMap<String, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachedContextResolver(ContextResolver<T> resolver, CachePolicy policy) {
+        this.resolver = resolver;
+        this.policy = policy;
+    }
+
+    @Override
+    public T resolve(String arg) {
+        long now = System.nanoTime();
+        Entry<T> entry = this.entries.get(arg);
+        if (entry != null) {
+            T value = entry.value();
+            if (value != null && !this.isExpired(entry, now)) {
+                entry.accessedAt = now;
+                this.hits.increment();
+                return value;
+            }
+
+            if (this.entries.remove(arg, entry)) this.evictions.increment();
+        }
+
+        this.misses.increment();
+        T value = this.resolver.resolve(arg);
+        if (value == null) return null;
+
+        this.entries.put(arg, new Entry<>(this.policy.weakValues() ? new WeakReference<>(value) : value, now));
+        if (this.entries.size() > this.policy.maximumSize()) this.evict(now);
+        return value;
+    }
+
+    public void invalidate(String arg) {
+        this.entries.remove(arg);
+    }
+
+    /**
+     * Removes every entry whose value matches, for example the player that just quit.
+     */
+    public void invalidateIf(Predicate<? super T> predicate) {
+        this.entries.values().removeIf(entry -> {
+            T value = entry.value();
+            return value == null || predicate.test(value);
+        });
+    }
+
+    public void invalidateAll() {
+        this.entries.clear();
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(this.hits.sum(), this.misses.sum(), this.evictions.sum(), this.entries.size());
+    }
+
+    private boolean isExpired(Entry<T> entry, long now) {
+        return this.policy.expireAfterNanos() > 0 && now - entry.createdAt >= this.policy.expireAfterNanos();
+    }
+
+    private synchronized void evict(long now) {
+        int maximumSize = this.policy.maximumSize();
+        if (this.entries.size() <= maximumSize) return;
+
+        for (Map.Entry<String, Entry<T>> entry : this.entries.entrySet()) {
+            if (entry.getValue().value() == null || this.isExpired(entry.getValue(), now)) {
+                if (this.entries.remove(entry.getKey(), entry.getValue())) this.evictions.increment();
+            }
+        }
+
+        int target = maximumSize - maximumSize / 10;
+        if (this.entries.size() <= target) return;
+
+        // access times keep changing while resolving, so they are read once before sorting
+        List<Candidate<T>> candidates = new ArrayList<>(this.entries.size());
+        for (Map.Entry<String, Entry<T>> entry : this.entries.entrySet()) {
+            candidates.add(new Candidate<>(entry.getKey(), entry.getValue(), entry.getValue().accessedAt));
+        }
+        candidates.sort(Comparator.comparingLong(Candidate::accessedAt));
+        for (int i = 0; i < candidates.size() && this.entries.size() > target; i++) {
+            Candidate<T> candidate = candidates.get(i);
+            if (this.entries.remove(candidate.key(), candidate.entry())) this.evictions.increment();
+        }
+    }
+
+    private record Candidate<T>(String key, Entry<T> entry, long accessedAt) {
+    }
+
+    private static final class Entry<T> {
+        private final Object value;
+        private final long createdAt;
+        private volatile long accessedAt;
+
+        private Entry(Object value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+            this.accessedAt = createdAt;
+        }
+
+        @SuppressWarnings("unchecked")
+        private T value() {
+            return this.value instanceof WeakReference<?> reference ? (T) reference.get() : (T) this.value;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.jazzkuh.commandlib.common.resolvers;
+
+import com.jazzkuh.commandlib.common.AnnotationCommandImpl;
+import com.jazzkuh.commandlib.common.AnnotationCommandSender;
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Parameter;
+
+/**
+ * What an {@link ArgumentResolver} may resolve relative to: the sender, the platform command and the arguments that
+ * were resolved before the current one. One context is reused for every argument of an invocation.
+ */
+public final class ResolutionContext<S> {
+    private static final ResolutionContext<?> DETACHED = new ResolutionContext<>(null, null, new Object[0]);
+
+    @Getter
+    private final AnnotationCommandSender<S> sender;
+    @Getter
+    private final AnnotationCommandImpl command;
+    private final Object[] resolved;
+    @Getter
+    private Parameter parameter;
+    private int index;
+
+    /**
+     * @param resolved the method arguments with the sender first, filled in by the caller as resolution progresses
+     */
+    public ResolutionContext(AnnotationCommandSender<S> sender, AnnotationCommandImpl command, Object[] resolved) {
+        this.sender = sender;
+        this.command = command;
+        this.resolved = resolved;
+    }
+
+    /**
+     * @return a context without sender or command, for resolution outside of a command invocation
+     */
+    @SuppressWarnings("unchecked")
+    public static <S> ResolutionContext<S> detached() {
+        return (ResolutionContext<S>) DETACHED;
+    }
+
+    /**
+     * Moves the context to the method parameter at the given index.
+     */
+    public ResolutionContext<S> at(int index, Parameter parameter) {
+        this.index = index;
+        this.parameter = parameter;
+        return this;
+    }
+
+    /**
+     * @return the closest argument before the current one that is an instance of the given type, for example the
+     * world argument a coordinate is relative to
+     */
+    @Nullable
+    public <V> V previous(Class<V> type) {
+        for (int i = Math.min(this.index, this.resolved.length) - 1; i >= 1; i--) {
+            if (type.isInstance(this.resolved[i])) return type.cast(this.resolved[i]);
+        }
+        return null;
+    }
+
+    /**
+     * @return the sender as the given type, or {@code null} if it is not one
+     */
+    @Nullable
+    public <V> V getSender(Class<V> type) {
+        if (this.sender == null) return null;
+        return type.isInstance(this.sender.getSender()) ? type.cast(this.sender.getSender()) : null;
+    }
+}
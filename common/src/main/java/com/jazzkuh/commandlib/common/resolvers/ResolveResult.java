@@ -0,0 +1,52 @@
+package com.jazzkuh.commandlib.common.resolvers;
+
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The outcome of an {@link ArgumentResolver}. Failures without a message and boolean successes are shared instances,
+ * so the common cases do not allocate.
+ */
+public final class ResolveResult<T> {
+    private static final ResolveResult<?> FAILURE = new ResolveResult<>(false, null, null);
+    private static final ResolveResult<Boolean> TRUE = new ResolveResult<>(true, Boolean.TRUE, null);
+    private static final ResolveResult<Boolean> FALSE = new ResolveResult<>(true, Boolean.FALSE, null);
+
+    private final boolean success;
+    @Getter
+    private final T value;
+    @Getter
+    private final String error;
+
+    private ResolveResult(boolean success, T value, String error) {
+        this.success = success;
+        this.value = value;
+        this.error = error;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> ResolveResult<T> success(T value) {
+        if (value instanceof Boolean bool) return (ResolveResult<T>) (bool ? TRUE : FALSE);
+        return new ResolveResult<>(true, value, null);
+    }
+
+    /**
+     * @return a success for a non-null value, otherwise the shared failure, as returned by legacy resolvers
+     */
+    public static <T> ResolveResult<T> of(@Nullable T value) {
+        return value == null ? failure() : success(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> ResolveResult<T> failure() {
+        return (ResolveResult<T>) FAILURE;
+    }
+
+    public static <T> ResolveResult<T> failure(String error) {
+        return new ResolveResult<>(false, null, error);
+    }
+
+    public boolean isSuccess() {
+        return this.success;
+    }
+}
@@ -6,12 +6,15 @@ import lombok.experimental.UtilityClass;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @UtilityClass
 public class Resolvers {
     private static final Map<Class<?>, ContextResolver<?>> contextResolvers = new HashMap<>();
     private static final Map<Class<?>, CompletionResolver<?>> completionResolvers = new HashMap<>();
     private static final Map<String, CompletionResolver<?>> completionStrings = new HashMap<>();
+    private static final Map<Class<?>, CachedContextResolver<?>> cachedResolvers = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ArgumentResolver<?>> argumentResolvers = new ConcurrentHashMap<>();
 
     static {
         contextResolvers.put(String.class, new StringResolver());
@@ -29,8 +32,18 @@ public class Resolvers {
     }
 
     public static void register(Class<?> typeClass, Object resolver, String... completions) {
+        if (resolver instanceof ArgumentResolver<?> argumentResolver) {
+            argumentResolvers.put(typeClass, argumentResolver);
+            if (!(resolver instanceof ContextResolver)) {
+                contextResolvers.put(typeClass, arg -> argumentResolver.resolve(arg, ResolutionContext.detached()).getValue());
+            }
+            cachedResolvers.remove(typeClass);
+        }
+
         if (resolver instanceof ContextResolver) {
             contextResolvers.put(typeClass, (ContextResolver<?>) resolver);
+            if (!(resolver instanceof ArgumentResolver)) argumentResolvers.remove(typeClass);
+            cachedResolvers.remove(typeClass);
         }
 
         if (resolver instanceof CompletionResolver) {
@@ -42,6 +55,35 @@ public class Resolvers {
         }
     }
 
+    /**
+     * Registers a resolver like {@link #register(Class, Object, String...)}, with its context resolution cached
+     * according to the given policy. Completions are not cached.
+     *
+     * @return the cache, to invalidate entries from platform events
+     */
+    public static <T> CachedContextResolver<T> registerCached(Class<T> typeClass, ContextResolver<T> resolver, CachePolicy policy, String... completions) {
+        register(typeClass, resolver, completions);
+
+        CachedContextResolver<T> cachedResolver = new CachedContextResolver<>(resolver, policy);
+        contextResolvers.put(typeClass, cachedResolver);
+        argumentResolvers.remove(typeClass);
+        cachedResolvers.put(typeClass, cachedResolver);
+        return cachedResolver;
+    }
+
+    public static <T> CachedContextResolver<T> cached(Class<T> typeClass) {
+        return (CachedContextResolver<T>) cachedResolvers.get(typeClass);
+    }
+
+    /**
+     * Removes a value from every cached resolver, for example a player that quit or a world that was unloaded.
+     */
+    public static void invalidate(Object value) {
+        for (CachedContextResolver<?> cachedResolver : cachedResolvers.values()) {
+            cachedResolver.invalidateIf(cached -> cached == value);
+        }
+    }
+
     public static void register(CompletionResolver<?> resolver, String... completions) {
         for (String completion : completions) {
             completionStrings.put(completion, resolver);
@@ -55,6 +97,20 @@ public class Resolvers {
         return contextResolvers.get(typeClass);
     }
 
+    /**
+     * @return the resolver for the type, with a registered {@link ContextResolver} adapted to an
+     * {@link ArgumentResolver} on first use, or {@code null} if there is none
+     */
+    public static ArgumentResolver<?> argument(Class<?> typeClass) {
+        Class<?> type = typeClass.isArray() ? typeClass.getComponentType() : typeClass;
+        ArgumentResolver<?> resolver = argumentResolvers.get(type);
+        if (resolver != null) return resolver;
+
+        ContextResolver<?> contextResolver = contextResolvers.get(type);
+        if (contextResolver == null) return null;
+        return argumentResolvers.computeIfAbsent(type, key -> ArgumentResolver.adapt(contextResolver));
+    }
+
     public static <T> CompletionResolver<T> completion(Class<?> typeClass) {
         return (CompletionResolver<T>) completionResolvers.get(typeClass);
     }
@@ -0,0 +1,124 @@
+package com.jazzkuh.commandlib.common.resolvers;
+
+import com.jazzkuh.commandlib.common.exception.CommandException;
+import com.jazzkuh.commandlib.common.exception.ContextResolverException;
+import com.jazzkuh.commandlib.common.exception.ParameterException;
+import lombok.experimental.UtilityClass;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+
+/**
+ * Binds the remaining arguments of a command to an array, {@link List} or {@link Set} parameter. Arrays are filled in
+ * place with one resolved element per argument, and {@code int[]}, {@code long[]} and {@code double[]} are parsed
+ * without boxing.
+ */
+@UtilityClass
+public class Variadics {
+    public static boolean isVariadic(Class<?> type) {
+        return type.isArray() || type == List.class || type == Set.class || type == Collection.class;
+    }
+
+    /**
+     * @return the component type of an array, or the type argument of a collection, {@code String} when it is raw
+     */
+    public static Class<?> elementType(Parameter parameter) {
+        Class<?> type = parameter.getType();
+        if (type.isArray()) return type.getComponentType();
+
+        if (parameter.getParameterizedType() instanceof ParameterizedType parameterizedType) {
+            Type argument = parameterizedType.getActualTypeArguments()[0];
+            if (argument instanceof Class<?> elementType) return elementType;
+        }
+        return String.class;
+    }
+
+    /**
+     * @param from the index of the first argument that belongs to the parameter
+     */
+    public static Object bind(Parameter parameter, String[] args, int from) throws CommandException {
+        Class<?> type = parameter.getType();
+        int count = Math.max(0, args.length - from);
+
+        if (type == String[].class) return Arrays.copyOfRange(args, from, from + count);
+
+        if (type == int[].class) {
+            int[] values = new int[count];
+            for (int i = 0; i < count; i++) {
+                try {
+                    values[i] = Integer.parseInt(args[from + i]);
+                } catch (NumberFormatException exception) {
+                    throw invalid(args[from + i], int.class);
+                }
+            }
+            return values;
+        }
+
+        if (type == long[].class) {
+            long[] values = new long[count];
+            for (int i = 0; i < count; i++) {
+                try {
+                    values[i] = Long.parseLong(args[from + i]);
+                } catch (NumberFormatException exception) {
+                    throw invalid(args[from + i], long.class);
+                }
+            }
+            return values;
+        }
+
+        if (type == double[].class) {
+            double[] values = new double[count];
+            for (int i = 0; i < count; i++) {
+                try {
+                    values[i] = Double.parseDouble(args[from + i]);
+                } catch (NumberFormatException exception) {
+                    throw invalid(args[from + i], double.class);
+                }
+            }
+            return values;
+        }
+
+        Class<?> elementType = elementType(parameter);
+        ContextResolver<?> resolver = Resolvers.context(elementType);
+        if (resolver == null && !elementType.isEnum()) throw new ContextResolverException(elementType.getName());
+
+        if (type.isArray()) {
+            Object array = Array.newInstance(elementType, count);
+            if (elementType.isPrimitive()) {
+                for (int i = 0; i < count; i++) Array.set(array, i, resolve(resolver, elementType, args[from + i]));
+                return array;
+            }
+
+            Object[] values = (Object[]) array;
+            for (int i = 0; i < count; i++) values[i] = resolve(resolver, elementType, args[from + i]);
+            return values;
+        }
+
+        Object[] values = new Object[count];
+        for (int i = 0; i < count; i++) values[i] = resolve(resolver, elementType, args[from + i]);
+        if (type == Set.class) return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(values)));
+        return Collections.unmodifiableList(Arrays.asList(values));
+    }
+
+    private static Object resolve(ContextResolver<?> resolver, Class<?> elementType, String arg) throws ParameterException {
+        Object resolvedObject = null;
+        if (resolver != null) {
+            resolvedObject = resolver.resolve(arg);
+        } else {
+            try {
+                resolvedObject = Enum.valueOf((Class<? extends Enum>) elementType, arg.toUpperCase());
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+
+        if (resolvedObject == null) throw invalid(arg, elementType);
+        return resolvedObject;
+    }
+
+    private static ParameterException invalid(String arg, Class<?> type) {
+        return new ParameterException("Cannot resolver parameter " + arg + " for type " + type.getSimpleName());
+    }
+}
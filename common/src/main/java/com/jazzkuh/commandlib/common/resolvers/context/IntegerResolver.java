@@ -1,14 +1,39 @@
 package com.jazzkuh.commandlib.common.resolvers.context;
 
+import com.jazzkuh.commandlib.common.resolvers.ArgumentResolver;
 import com.jazzkuh.commandlib.common.resolvers.ContextResolver;
+import com.jazzkuh.commandlib.common.resolvers.ResolutionContext;
+import com.jazzkuh.commandlib.common.resolvers.ResolveResult;
 
-public final class IntegerResolver implements ContextResolver<Integer> {
+public final class IntegerResolver implements ContextResolver<Integer>, ArgumentResolver<Integer> {
     @Override
     public Integer resolve(String args) {
+        return this.resolve(args, ResolutionContext.detached()).getValue();
+    }
+
+    @Override
+    public ResolveResult<Integer> resolve(CharSequence input, ResolutionContext<?> context) {
+        if (!isInteger(input)) return ResolveResult.failure();
         try {
-            return Integer.parseInt(args);
+            return ResolveResult.success(Integer.parseInt(input, 0, input.length(), 10));
         } catch (NumberFormatException e) {
-            return null;
+            return ResolveResult.failure();
+        }
+    }
+
+    /**
+     * Rejects input that is not a signed decimal number up front, so most invalid input fails without the cost of a
+     * {@link NumberFormatException}. Only overflow is left to the parser.
+     */
+    static boolean isInteger(CharSequence input) {
+        int length = input.length();
+        int i = length > 0 && (input.charAt(0) == '-' || input.charAt(0) == '+') ? 1 : 0;
+        if (i == length) return false;
+
+        for (; i < length; i++) {
+            char c = input.charAt(i);
+            if (c < '0' || c > '9') return false;
         }
+        return true;
     }
-}
\ No newline at end of file
+}
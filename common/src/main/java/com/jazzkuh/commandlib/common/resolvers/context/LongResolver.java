@@ -1,14 +1,23 @@
 package com.jazzkuh.commandlib.common.resolvers.context;
 
+import com.jazzkuh.commandlib.common.resolvers.ArgumentResolver;
 import com.jazzkuh.commandlib.common.resolvers.ContextResolver;
+import com.jazzkuh.commandlib.common.resolvers.ResolutionContext;
+import com.jazzkuh.commandlib.common.resolvers.ResolveResult;
 
-public final class LongResolver implements ContextResolver<Long> {
+public final class LongResolver implements ContextResolver<Long>, ArgumentResolver<Long> {
     @Override
     public Long resolve(String args) {
+        return this.resolve(args, ResolutionContext.detached()).getValue();
+    }
+
+    @Override
+    public ResolveResult<Long> resolve(CharSequence input, ResolutionContext<?> context) {
+        if (!IntegerResolver.isInteger(input)) return ResolveResult.failure();
         try {
-            return Long.parseLong(args);
+            return ResolveResult.success(Long.parseLong(input, 0, input.length(), 10));
         } catch (NumberFormatException e) {
-            return null;
+            return ResolveResult.failure();
         }
     }
-}
\ No newline at end of file
+}
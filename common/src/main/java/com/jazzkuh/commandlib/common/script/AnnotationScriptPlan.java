@@ -0,0 +1,133 @@
+package com.jazzkuh.commandlib.common.script;
+
+import com.jazzkuh.commandlib.common.AnnotationCommandExecutor;
+import com.jazzkuh.commandlib.common.AnnotationCommandImpl;
+import com.jazzkuh.commandlib.common.AnnotationCommandSender;
+import com.jazzkuh.commandlib.common.AnnotationSubCommand;
+import com.jazzkuh.commandlib.common.SenderOverloads;
+import com.jazzkuh.commandlib.common.exception.ArgumentException;
+import com.jazzkuh.commandlib.common.exception.CommandException;
+import com.jazzkuh.commandlib.common.exception.PermissionException;
+import com.jazzkuh.commandlib.common.exception.SenderException;
+import com.jazzkuh.commandlib.common.metrics.CommandMetrics;
+import com.jazzkuh.commandlib.common.metrics.CommandPhase;
+import com.jazzkuh.commandlib.common.metrics.Metrics;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Dispatches script lines for a library command straight to its executors. Subcommand names are split once up front
+ * and failures surface as exceptions instead of usage messages, so the runner can count and report them. Permissions
+ * are checked and metrics are recorded the same way the platforms do for chat commands.
+ */
+public final class AnnotationScriptPlan<T> implements ScriptPlan {
+    private final AnnotationCommandImpl command;
+    private final List<AnnotationSubCommand> mainCommands;
+    private final List<AnnotationSubCommand> subCommands;
+    private final String[][] subCommandNames;
+    private final SenderOverloads overloads;
+    private final AnnotationCommandSender<T> sender;
+    private final Predicate<String> permitted;
+
+    /**
+     * @param permitted whether the sender has a permission
+     */
+    public AnnotationScriptPlan(AnnotationCommandImpl command, List<AnnotationSubCommand> mainCommands, List<AnnotationSubCommand> subCommands, T sender, Predicate<String> permitted) {
+        this.command = command;
+        this.mainCommands = List.copyOf(mainCommands);
+        this.subCommands = List.copyOf(subCommands);
+        this.subCommandNames = new String[this.subCommands.size()][];
+        for (int i = 0; i < this.subCommands.size(); i++) {
+            this.subCommandNames[i] = this.subCommands.get(i).getName().trim().split("\\s+");
+        }
+        this.overloads = new SenderOverloads(this.mainCommands, this.subCommands);
+        this.sender = new AnnotationCommandSender<>(sender);
+        this.permitted = permitted;
+    }
+
+    @Override
+    public void validate(String[] args) throws CommandException {
+        Route route = this.route(args);
+        AnnotationSubCommand subCommand = this.overloads.select(route.subCommand(), this.sender.getSender());
+        if (subCommand == null) throw new SenderException();
+        if (!this.isPermitted(subCommand)) throw new PermissionException("You do not have permission to use this command.");
+        new AnnotationCommandExecutor<T>(subCommand, this.command).validate(this.sender, route.args());
+    }
+
+    @Override
+    public void execute(String[] args) throws CommandException {
+        Route route = this.route(args);
+        AnnotationSubCommand subCommand = this.overloads.select(route.subCommand(), this.sender.getSender());
+        CommandMetrics metrics = Metrics.getCommandMetrics();
+        String commandName = this.command.getCommandName();
+        long start = System.nanoTime();
+        if (subCommand == null) {
+            SenderException senderException = new SenderException();
+            metrics.recordOutcome(commandName, route.subCommand().getName(), senderException, System.nanoTime() - start);
+            throw senderException;
+        }
+
+        boolean permitted = this.isPermitted(subCommand);
+        metrics.recordPhase(commandName, subCommand.getName(), CommandPhase.PERMISSION, System.nanoTime() - start);
+        try {
+            if (!permitted) throw new PermissionException("You do not have permission to use this command.");
+            new AnnotationCommandExecutor<T>(subCommand, this.command).execute(this.sender, route.args());
+            metrics.recordOutcome(commandName, subCommand.getName(), null, System.nanoTime() - start);
+        } catch (CommandException exception) {
+            metrics.recordOutcome(commandName, subCommand.getName(), exception, System.nanoTime() - start);
+            throw exception;
+        }
+    }
+
+    private boolean isPermitted(AnnotationSubCommand subCommand) {
+        return subCommand.getPermission() == null || this.permitted.test(subCommand.getPermission());
+    }
+
+    private Route route(String[] args) throws CommandException {
+        int best = -1;
+        for (int i = 0; i < this.subCommands.size(); i++) {
+            String[] name = this.subCommandNames[i];
+            if (name.length > args.length || (best >= 0 && name.length <= this.subCommandNames[best].length)) continue;
+            if (matches(args, name)) best = i;
+        }
+
+        if (best >= 0) {
+            String[] name = this.subCommandNames[best];
+            if (name.length == 1) return new Route(this.subCommands.get(best), args);
+
+            String[] collapsed = new String[args.length - name.length + 1];
+            collapsed[0] = this.subCommands.get(best).getName();
+            System.arraycopy(args, name.length, collapsed, 1, args.length - name.length);
+            return new Route(this.subCommands.get(best), collapsed);
+        }
+
+        if (args.length > 0) {
+            for (AnnotationSubCommand subCommand : this.subCommands) {
+                if (subCommand.getAliases().contains(args[0].toLowerCase())) return new Route(subCommand, args);
+            }
+        }
+
+        if (this.mainCommands.isEmpty()) throw new ArgumentException();
+        if (this.overloads.getMain() != null) return new Route(this.overloads.getMain(), args);
+
+        for (AnnotationSubCommand mainCommand : this.mainCommands) {
+            try {
+                new AnnotationCommandExecutor<T>(mainCommand, this.command).validate(this.sender, args);
+                return new Route(mainCommand, args);
+            } catch (CommandException ignored) {
+            }
+        }
+        return new Route(this.mainCommands.get(0), args);
+    }
+
+    private static boolean matches(String[] args, String[] name) {
+        for (int i = 0; i < name.length; i++) {
+            if (!args[i].equalsIgnoreCase(name[i])) return false;
+        }
+        return true;
+    }
+
+    private record Route(AnnotationSubCommand subCommand, String[] args) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.jazzkuh.commandlib.common.script;
+
+import com.jazzkuh.commandlib.common.exception.ArgumentException;
+import com.jazzkuh.commandlib.common.exception.CommandException;
+import com.jazzkuh.commandlib.common.exception.ContextResolverException;
+import com.jazzkuh.commandlib.common.exception.ErrorException;
+import com.jazzkuh.commandlib.common.tokenizer.ArgumentTokenizer;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Runs a file of commands, one per line, through the library dispatcher. The file is memory-mapped in windows and
+ * processed line by line, so scripts of any size are streamed without being read into memory. Blank lines and lines
+ * starting with {@code #} are skipped, and a leading {@code /} is ignored.
+ */
+public class CommandScriptRunner {
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+    private static final ScriptPlan UNKNOWN = new ScriptPlan() {
+        @Override
+        public void validate(String[] args) throws CommandException {
+            throw new ErrorException("Unknown command");
+        }
+
+        @Override
+        public void execute(String[] args) throws CommandException {
+            throw new ErrorException("Unknown command");
+        }
+    };
+
+    private final Function<String, @Nullable ScriptPlan> planner;
+
+    /**
+     * @param planner resolves the plan for a lowercase command label, or returns {@code null} for unknown labels
+     */
+    public CommandScriptRunner(Function<String, @Nullable ScriptPlan> planner) {
+        this.planner = planner;
+    }
+
+    public ScriptResult run(Path path, ScriptOptions options, ScriptListener listener) throws IOException {
+        long start = System.nanoTime();
+        Map<String, ScriptPlan> plans = new HashMap<>();
+        int lines = 0;
+        int commands = 0;
+        int failures = 0;
+        int unverifiable = 0;
+        byte[] buffer = new byte[256];
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+
+            while (position < size) {
+                long length = Math.min(WINDOW_SIZE, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean last = position + length == size;
+
+                int lineStart = 0;
+                int limit = window.limit();
+                for (int i = 0; i <= limit; i++) {
+                    if (i < limit && window.get(i) != '\n') continue;
+                    if (i == limit && (!last || i == lineStart)) break;
+
+                    int lineLength = i - lineStart;
+                    if (lineLength > buffer.length) buffer = new byte[Math.max(lineLength, buffer.length * 2)];
+                    window.get(lineStart, buffer, 0, lineLength);
+                    String line = new String(buffer, 0, lineLength, StandardCharsets.UTF_8).strip();
+                    lineStart = i + 1;
+                    lines++;
+
+                    if (line.startsWith("/")) line = line.substring(1).strip();
+                    if (line.isEmpty() || line.startsWith("#")) continue;
+
+                    commands++;
+                    try {
+                        if (!this.dispatch(plans, line, options.dryRun())) {
+                            unverifiable++;
+                            listener.unverifiable(lines, line);
+                        }
+                    } catch (CommandException exception) {
+                        failures++;
+                        listener.error(lines, line, exception);
+                        if (!options.continueOnError()) {
+                            return new ScriptResult(lines, commands, failures, unverifiable, true, System.nanoTime() - start);
+                        }
+                    }
+
+                    if (options.progressInterval() > 0 && lines % options.progressInterval() == 0) {
+                        listener.progress(lines, position + lineStart, size);
+                    }
+                }
+
+                if (lineStart == 0 && !last) throw new IOException("Line " + (lines + 1) + " is longer than " + WINDOW_SIZE + " bytes");
+                position += last ? length : lineStart;
+            }
+
+            listener.progress(lines, size, size);
+        }
+
+        return new ScriptResult(lines, commands, failures, unverifiable, false, System.nanoTime() - start);
+    }
+
+    /**
+     * Describes a failure in the same words the platforms use for the usual chat error messages.
+     */
+    public static String describe(CommandException exception) {
+        if (exception instanceof ArgumentException) return "Invalid usage";
+        if (exception instanceof ContextResolverException) return "A context resolver was not found for: " + exception.getMessage();
+        return exception.getMessage();
+    }
+
+    /**
+     * @return whether the line was executed or validated, {@code false} for dry runs of unverifiable plans
+     */
+    private boolean dispatch(Map<String, ScriptPlan> plans, String line, boolean dryRun) throws CommandException {
+        String[] tokens = ArgumentTokenizer.split(line);
+        String label = tokens[0].toLowerCase();
+        String[] args = new String[tokens.length - 1];
+        System.arraycopy(tokens, 1, args, 0, args.length);
+
+        ScriptPlan plan = plans.get(label);
+        if (plan == null) {
+            plan = this.planner.apply(label);
+            if (plan == null) plan = UNKNOWN;
+            plans.put(label, plan);
+        }
+
+        if (!dryRun) {
+            plan.execute(args);
+            return true;
+        }
+
+        if (!plan.isVerifiable()) return false;
+        plan.validate(args);
+        return true;
+    }
+}
@@ -0,0 +1,20 @@
+package com.jazzkuh.commandlib.common.script;
+
+import com.jazzkuh.commandlib.common.exception.CommandException;
+
+public interface ScriptListener {
+    ScriptListener NOOP = new ScriptListener() {
+    };
+
+    default void progress(int line, long bytesRead, long totalBytes) {
+    }
+
+    default void error(int line, String command, CommandException exception) {
+    }
+
+    /**
+     * Called in dry runs for lines of commands that are not from this library and cannot be validated.
+     */
+    default void unverifiable(int line, String command) {
+    }
+}
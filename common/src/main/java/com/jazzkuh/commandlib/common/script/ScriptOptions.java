@@ -0,0 +1,37 @@
+package com.jazzkuh.commandlib.common.script;
+
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+public record ScriptOptions(@Getter boolean dryRun, @Getter boolean continueOnError, @Getter int progressInterval) {
+    public static final ScriptOptions DEFAULT = new ScriptOptions(false, false, 100);
+
+    /**
+     * Parses {@code --dry-run}, {@code --continue-on-error} and {@code --progress=<lines>} from a space separated
+     * string of flags.
+     */
+    public static ScriptOptions parse(@Nullable String flags) {
+        if (flags == null || flags.isBlank()) return DEFAULT;
+
+        boolean dryRun = DEFAULT.dryRun();
+        boolean continueOnError = DEFAULT.continueOnError();
+        int progressInterval = DEFAULT.progressInterval();
+        for (String flag : flags.trim().split("\\s+")) {
+            if (flag.equalsIgnoreCase("--dry-run")) {
+                dryRun = true;
+            } else if (flag.equalsIgnoreCase("--continue-on-error") || flag.equalsIgnoreCase("--continue")) {
+                continueOnError = true;
+            } else if (flag.toLowerCase().startsWith("--progress=")) {
+                try {
+                    progressInterval = Math.max(0, Integer.parseInt(flag.substring("--progress=".length())));
+                } catch (NumberFormatException exception) {
+                    throw new IllegalArgumentException("Invalid progress interval: " + flag);
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown flag: " + flag);
+            }
+        }
+
+        return new ScriptOptions(dryRun, continueOnError, progressInterval);
+    }
+}
@@ -0,0 +1,21 @@
+package com.jazzkuh.commandlib.common.script;
+
+import com.jazzkuh.commandlib.common.exception.CommandException;
+
+/**
+ * How a single command label is dispatched from a script. Plans are resolved once per label and reused for every
+ * line that starts with it.
+ */
+public interface ScriptPlan {
+    /**
+     * @return whether {@link #validate} can tell if a line would succeed; dry runs report lines of unverifiable plans
+     * instead of validating them
+     */
+    default boolean isVerifiable() {
+        return true;
+    }
+
+    void validate(String[] args) throws CommandException;
+
+    void execute(String[] args) throws CommandException;
+}
@@ -0,0 +1,7 @@
+package com.jazzkuh.commandlib.common.script;
+
+import lombok.Getter;
+
+public record ScriptResult(@Getter int lines, @Getter int commands, @Getter int failures, @Getter int unverifiable,
+                           @Getter boolean aborted, @Getter long nanos) {
+}
@@ -0,0 +1,217 @@
+package com.jazzkuh.commandlib.common.tokenizer;
+
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits command input into arguments in a single pass. A token that starts with a double or single quote runs until
+ * the matching quote, so {@code "Spawn Area"} is one argument. A backslash escapes a following quote, backslash or
+ * whitespace character both inside and outside of quotes, and is kept as is before anything else, so paths and
+ * apostrophes in the middle of a word are left alone.
+ */
+@UtilityClass
+public class ArgumentTokenizer {
+    public static ArgumentTokens tokenize(String input) {
+        int[] spans = new int[24];
+        int size = 0;
+        boolean open = false;
+        boolean trailing = false;
+
+        int length = input.length();
+        int i = 0;
+        while (i < length) {
+            char c = input.charAt(i);
+            if (Character.isWhitespace(c)) {
+                trailing = true;
+                i++;
+                continue;
+            }
+
+            trailing = false;
+            int start = i;
+            int flags = 0;
+            char quote = 0;
+            if (c == '"' || c == '\'') {
+                quote = c;
+                flags |= ArgumentTokens.QUOTED;
+                i++;
+            }
+
+            while (i < length) {
+                c = input.charAt(i);
+                if (c == '\\' && i + 1 < length && isEscapable(input.charAt(i + 1))) {
+                    flags |= ArgumentTokens.ESCAPED;
+                    i += 2;
+                    continue;
+                }
+
+                if (quote != 0) {
+                    if (c == quote) quote = 0;
+                    i++;
+                    continue;
+                }
+
+                if (Character.isWhitespace(c)) break;
+                i++;
+            }
+
+            if (quote != 0) open = true;
+            if (size * 3 == spans.length) {
+                int[] grown = new int[spans.length * 2];
+                System.arraycopy(spans, 0, grown, 0, spans.length);
+                spans = grown;
+            }
+
+            spans[size * 3] = start;
+            spans[size * 3 + 1] = i;
+            spans[size * 3 + 2] = flags;
+            size++;
+        }
+
+        return new ArgumentTokens(input, spans, size, open, trailing);
+    }
+
+    /**
+     * Splits a complete command line, for example a line of a command script.
+     */
+    public static String[] split(String input) {
+        return tokenize(input).toArray();
+    }
+
+    /**
+     * Joins arguments that the platform already split on spaces and splits them again with quote support. Returns the
+     * same array when no argument contains a quote or backslash, which is the common case.
+     */
+    public static String[] retokenize(String[] args) {
+        if (isPlain(args)) return args;
+        return tokenize(String.join(" ", args)).toArray();
+    }
+
+    /**
+     * Same as {@link #retokenize(String[])}, returning the tokens so the raw input of an argument can be read back, or
+     * null when no argument contains a quote or backslash and the arguments can be used as they are.
+     */
+    @Nullable
+    public static ArgumentTokens retokenizeTokens(String[] args) {
+        if (isPlain(args)) return null;
+        return tokenize(String.join(" ", args));
+    }
+
+    /**
+     * Same as {@link #retokenize(String[])} for tab completion, keeping the empty last argument of a new token.
+     */
+    public static String[] retokenizePartial(String[] args) {
+        if (isPlain(args)) return args;
+        return tokenize(String.join(" ", args)).toCompletionArray(0);
+    }
+
+    /**
+     * Joins arguments back into a command line that splits into the same arguments again, quoting the ones that
+     * contain whitespace.
+     */
+    public static String join(String[] args) {
+        StringBuilder builder = new StringBuilder();
+        for (String arg : args) {
+            if (builder.length() > 0) builder.append(' ');
+            if (needsQuoting(arg)) builder.append('"').append(escape(arg)).append('"');
+            else builder.append(arg);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Adapts completions to what the client replaces, which is everything after the last space of the input. While
+     * a quoted token is still open, only the remainder of each matching completion is suggested with a closing quote.
+     * Otherwise, completions that contain whitespace or quotes are quoted so they come back as a single argument.
+     */
+    public static List<String> fitCompletions(String input, List<String> completions) {
+        boolean quoted = input.indexOf('"') >= 0 || input.indexOf('\'') >= 0;
+        ArgumentTokens tokens = quoted ? tokenize(input) : null;
+        if (tokens == null || !tokens.isOpen()) {
+            if (!needsQuoting(completions)) return completions;
+
+            List<String> fitted = new ArrayList<>(completions.size());
+            for (String completion : completions) {
+                fitted.add(needsQuoting(completion) ? "\"" + escape(completion) + "\"" : completion);
+            }
+            return fitted;
+        }
+
+        int last = tokens.size() - 1;
+        int start = tokens.start(last);
+        char quote = input.charAt(start);
+        int cut = input.lastIndexOf(' ');
+        String replaced = cut < start ? "" : unescape(input, start, cut + 1);
+
+        List<String> fitted = new ArrayList<>(completions.size());
+        for (String completion : completions) {
+            if (!completion.regionMatches(true, 0, replaced, 0, replaced.length())) continue;
+            String remainder = escape(completion.substring(replaced.length())) + quote;
+            fitted.add(cut < start ? quote + remainder : remainder);
+        }
+        return fitted;
+    }
+
+    static String unescape(String input, int start, int end) {
+        StringBuilder builder = new StringBuilder(end - start);
+        char quote = 0;
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c == '\\' && i + 1 < end && isEscapable(input.charAt(i + 1))) {
+                builder.append(input.charAt(++i));
+                continue;
+            }
+
+            if (i == start && (c == '"' || c == '\'')) {
+                quote = c;
+                continue;
+            }
+
+            if (quote != 0 && c == quote) {
+                quote = 0;
+                continue;
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    private static String escape(String value) {
+        if (value.indexOf('"') < 0 && value.indexOf('\\') < 0) return value;
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static boolean isEscapable(char c) {
+        return c == '"' || c == '\'' || c == '\\' || Character.isWhitespace(c);
+    }
+
+    private static boolean isPlain(String[] args) {
+        for (String arg : args) {
+            for (int i = 0; i < arg.length(); i++) {
+                char c = arg.charAt(i);
+                if (c == '"' || c == '\'' || c == '\\') return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean needsQuoting(List<String> completions) {
+        for (String completion : completions) {
+            if (needsQuoting(completion)) return true;
+        }
+        return false;
+    }
+
+    private static boolean needsQuoting(String completion) {
+        if (completion.isEmpty()) return false;
+        if (completion.charAt(0) == '"' || completion.charAt(0) == '\'') return true;
+        for (int i = 0; i < completion.length(); i++) {
+            char c = completion.charAt(i);
+            if (Character.isWhitespace(c) || c == '\\') return true;
+        }
+        return false;
+    }
+}
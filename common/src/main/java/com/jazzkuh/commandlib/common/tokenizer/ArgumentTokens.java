@@ -0,0 +1,101 @@
+package com.jazzkuh.commandlib.common.tokenizer;
+
+/**
+ * Token spans over an input string, produced by {@link ArgumentTokenizer}. A span covers the raw token including its
+ * quotes and escapes; values are only unescaped when they are read, and tokens without quotes or escapes are plain
+ * substrings of the input.
+ */
+public final class ArgumentTokens {
+    static final int QUOTED = 1;
+    static final int ESCAPED = 2;
+
+    private final String input;
+    private final int[] spans;
+    private final int size;
+    private final boolean open;
+    private final boolean trailing;
+
+    ArgumentTokens(String input, int[] spans, int size, boolean open, boolean trailing) {
+        this.input = input;
+        this.spans = spans;
+        this.size = size;
+        this.open = open;
+        this.trailing = trailing;
+    }
+
+    public String getInput() {
+        return this.input;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the index of the first character of the raw token, including an opening quote
+     */
+    public int start(int index) {
+        return this.spans[index * 3];
+    }
+
+    /**
+     * @return the index after the last character of the raw token
+     */
+    public int end(int index) {
+        return this.spans[index * 3 + 1];
+    }
+
+    public boolean isQuoted(int index) {
+        return (this.spans[index * 3 + 2] & QUOTED) != 0;
+    }
+
+    /**
+     * @return whether the last token opens a quote that is never closed, which only happens while typing
+     */
+    public boolean isOpen() {
+        return this.open;
+    }
+
+    /**
+     * @return whether the input ends with whitespace outside of quotes, so a new token has been started
+     */
+    public boolean isTrailing() {
+        return this.trailing;
+    }
+
+    public String get(int index) {
+        int start = this.start(index);
+        int end = this.end(index);
+        if (this.spans[index * 3 + 2] == 0) return this.input.substring(start, end);
+        return ArgumentTokenizer.unescape(this.input, start, end);
+    }
+
+    public String[] toArray() {
+        return this.toArray(0);
+    }
+
+    /**
+     * @param from the index of the first token to include, for example {@code 1} to drop the command label
+     */
+    public String[] toArray(int from) {
+        String[] tokens = new String[Math.max(0, this.size - from)];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = this.get(from + i);
+        }
+        return tokens;
+    }
+
+    /**
+     * Same as {@link #toArray(int)}, with an empty last token when the input ends with whitespace, matching how the
+     * platforms pass arguments to tab completion.
+     */
+    public String[] toCompletionArray(int from) {
+        String[] tokens = this.toArray(from);
+        if (!this.trailing) return tokens;
+
+        String[] completion = new String[tokens.length + 1];
+        System.arraycopy(tokens, 0, completion, 0, tokens.length);
+        completion[tokens.length] = "";
+        return completion;
+    }
+}
@@ -4,6 +4,11 @@ import com.jazzkuh.commandlib.common.AnnotationCommandImpl;
 import com.jazzkuh.commandlib.common.AnnotationCommandSender;
 import com.jazzkuh.commandlib.common.annotations.*;
 import com.jazzkuh.commandlib.common.exception.*;
+import com.jazzkuh.commandlib.common.metrics.CommandMetrics;
+import com.jazzkuh.commandlib.common.metrics.CommandPhase;
+import com.jazzkuh.commandlib.common.metrics.Metrics;
+import com.jazzkuh.commandlib.common.options.OptionSpec;
+import com.jazzkuh.commandlib.common.ratelimit.RateLimits;
 import com.jazzkuh.commandlib.common.resolvers.CompletionResolver;
 import com.jazzkuh.commandlib.common.resolvers.Resolvers;
 import com.jazzkuh.commandlib.jda.framework.JDACommandExecutor;
@@ -11,6 +16,7 @@ import com.jazzkuh.commandlib.jda.framework.JDACommandParser;
 import com.jazzkuh.commandlib.jda.framework.JDASubCommand;
 import com.jazzkuh.commandlib.jda.framework.CommandParameter;
 import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import net.dv8tion.jda.api.interactions.InteractionType;
@@ -24,13 +30,15 @@ import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class AnnotationCommand extends ListenerAdapter implements AnnotationCommandImpl {
     private final String commandName;
     private JDASubCommand mainCommand = null;
     private final List<JDASubCommand> subCommands = new ArrayList<>();
+    private final Map<String, Map<String, String>> optionNames = new HashMap<>();
 
     public AnnotationCommand() {
         if (!this.getClass().isAnnotationPresent(com.jazzkuh.commandlib.common.annotations.Command.class)) {
@@ -39,14 +47,32 @@ public class AnnotationCommand extends ListenerAdapter implements AnnotationComm
 
         this.commandName = this.getClass().getAnnotation(com.jazzkuh.commandlib.common.annotations.Command.class).value();
 
-        List<Method> mainCommands = Arrays.stream(this.getClass().getMethods()).filter(method -> method.isAnnotationPresent(Main.class)).toList();
-        if (mainCommands.size() > 1) {
-            throw new IllegalArgumentException("There can only be one main command per class");
+        for (Method method : this.getClass().getMethods()) {
+            if (method.isAnnotationPresent(Main.class)) {
+                if (this.mainCommand != null) {
+                    throw new IllegalArgumentException("There can only be one main command per class");
+                }
+                this.mainCommand = JDACommandParser.parse(this, method);
+            }
+
+            if (method.isAnnotationPresent(Subcommand.class)) this.subCommands.add(JDACommandParser.parse(this, method));
         }
-        mainCommands.forEach(method -> this.mainCommand = JDACommandParser.parse(this, method));
 
-        List<Method> subcommandMethods = Arrays.stream(this.getClass().getMethods()).filter(method -> method.isAnnotationPresent(Subcommand.class)).toList();
-        subcommandMethods.forEach(method -> this.subCommands.add(JDACommandParser.parse(this, method)));
+        List<JDASubCommand> commands = new ArrayList<>(this.subCommands);
+        if (this.mainCommand != null) commands.add(this.mainCommand);
+        for (JDASubCommand command : commands) {
+            Map<String, String> optionNames = new HashMap<>();
+            for (CommandParameter parameter : command.getCommandParameters()) {
+                if (!OptionSpec.isOption(parameter.parameter())) continue;
+
+                Flag flag = parameter.parameter().getAnnotation(Flag.class);
+                String optionName = flag != null ? flag.value()[0] : parameter.parameter().getAnnotation(Named.class).value();
+                optionNames.put(parameter.getName(), OptionSpec.normalize(optionName));
+            }
+
+            // slash options are only unique within their subcommand, the main command is keyed by an empty name
+            if (!optionNames.isEmpty()) this.optionNames.put(command == this.mainCommand ? "" : command.getName().toLowerCase(), optionNames);
+        }
     }
 
     @Override
@@ -54,15 +80,37 @@ public class AnnotationCommand extends ListenerAdapter implements AnnotationComm
         return this.commandName;
     }
 
+    @Override
+    public long getSenderKey(Object sender) {
+        return sender instanceof SlashCommandInteractionEvent event ? event.getUser().getIdLong() : RateLimits.EXEMPT;
+    }
+
+    @Override
+    public String getSenderName(Object sender) {
+        return sender instanceof SlashCommandInteractionEvent event ? event.getUser().getName() : String.valueOf(sender);
+    }
+
+    @Override
+    public boolean hasBypass(Object sender, String permission) {
+        if (!(sender instanceof SlashCommandInteractionEvent event) || event.getMember() == null) return false;
+        try {
+            return event.getMember().hasPermission(Permission.valueOf(permission));
+        } catch (IllegalArgumentException exception) {
+            return false;
+        }
+    }
+
     @Override
     public void onSlashCommandInteraction(SlashCommandInteractionEvent event) {
         SlashCommandInteraction interaction = event.getInteraction();
         if (event.getInteraction().getType() != InteractionType.COMMAND) return;
         if (!interaction.getName().equalsIgnoreCase(this.commandName)) return;
 
+        String subcommandName = interaction.getSubcommandName();
+        Map<String, String> optionNames = this.optionNames.getOrDefault(subcommandName == null ? "" : subcommandName.toLowerCase(), Map.of());
         String[] args = interaction.getOptions()
                 .stream()
-                .map(OptionMapping::getAsString)
+                .map(mapping -> token(optionNames, mapping))
                 .toArray(String[]::new);
 
         if (args.length < 1) {
@@ -84,8 +132,23 @@ public class AnnotationCommand extends ListenerAdapter implements AnnotationComm
         this.executeCommand(this.mainCommand, event, args);
     }
 
+    /**
+     * Slash command options are already named, so flags and named options are passed on as {@code --name=value}
+     * tokens for the executor to parse like any other option.
+     */
+    private static String token(Map<String, String> optionNames, OptionMapping mapping) {
+        String optionName = optionNames.get(mapping.getName());
+        return optionName == null ? mapping.getAsString() : optionName + "=" + mapping.getAsString();
+    }
+
     private void executeCommand(JDASubCommand subCommand, SlashCommandInteractionEvent event, String[] args) {
-        if (subCommand.getPermission() != null && !event.getMember().hasPermission(subCommand.getPermission())) {
+        CommandMetrics metrics = Metrics.getCommandMetrics();
+        long start = System.nanoTime();
+
+        boolean permitted = subCommand.getPermission() == null || event.getMember().hasPermission(subCommand.getPermission());
+        metrics.recordPhase(this.commandName, subCommand.getName(), CommandPhase.PERMISSION, System.nanoTime() - start);
+        if (!permitted) {
+            metrics.recordOutcome(this.commandName, subCommand.getName(), new PermissionException("You do not have permission to execute this command."), System.nanoTime() - start);
             event.reply("You do not have permission to execute this command.").queue();
             return;
         }
@@ -95,13 +158,17 @@ public class AnnotationCommand extends ListenerAdapter implements AnnotationComm
 
         try {
             commandExecutor.execute(commandSender, args);
+            metrics.recordOutcome(this.commandName, subCommand.getName(), null, System.nanoTime() - start);
             if (JDACommandLoader.isDebug()) System.out.println("Executed command " + subCommand.getName());
         } catch (CommandException commandException) {
+            metrics.recordOutcome(this.commandName, subCommand.getName(), commandException, System.nanoTime() - start);
             switch (commandException) {
                 case ArgumentException ignored -> event.reply("Not enough arguments.").queue();
                 case PermissionException permissionException -> event.reply(permissionException.getMessage()).queue();
+                case SenderException senderException -> event.reply(senderException.getMessage()).queue();
                 case ContextResolverException contextResolverException -> event.reply("A context resolver was not found for: " + contextResolverException.getMessage()).queue();
                 case ParameterException parameterException -> event.reply(parameterException.getMessage()).queue();
+                case CooldownException cooldownException -> event.reply(cooldownException.getMessage()).setEphemeral(true).queue();
                 case ErrorException errorException -> event.reply("An error occurred while executing this subcommand: " + errorException.getMessage()).queue();
                 default -> {
                 }
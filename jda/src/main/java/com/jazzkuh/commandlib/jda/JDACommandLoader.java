@@ -1,5 +1,7 @@
 package com.jazzkuh.commandlib.jda;
 
+import com.jazzkuh.commandlib.common.registry.CommandIndex;
+import com.jazzkuh.commandlib.common.registry.CommandRegistry;
 import lombok.Getter;
 import lombok.Setter;
 import net.dv8tion.jda.api.JDA;
@@ -9,15 +11,17 @@ import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.requests.restaction.CommandListUpdateAction;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 public class JDACommandLoader {
 	private static final @Getter Set<CommandData> toPropagate = new HashSet<>();
 	@Getter @Setter
-	private static boolean debug = true;
+	private static boolean debug = false;
 	public static final Map<Class<?>, OptionType> DEFINITIONS;
 
 	static {
@@ -36,6 +40,29 @@ public class JDACommandLoader {
 		DEFINITIONS.put(Message.Attachment.class, OptionType.ATTACHMENT);
 	}
 
+	public static List<AnnotationCommand> registerAll(JDA jda, ClassLoader classLoader) {
+		return registerClasses(jda, CommandIndex.load(classLoader));
+	}
+
+	public static List<AnnotationCommand> registerAll(JDA jda, ClassLoader classLoader, String packageName) {
+		return registerClasses(jda, CommandIndex.scan(classLoader, packageName));
+	}
+
+	private static List<AnnotationCommand> registerClasses(JDA jda, List<Class<?>> commandClasses) {
+		List<AnnotationCommand> commands = CommandRegistry.instantiate(commandClasses, AnnotationCommand.class);
+		registerAll(jda, commands);
+		return commands;
+	}
+
+	public static void registerAll(JDA jda, Collection<? extends AnnotationCommand> commands) {
+		jda.addEventListener(commands.toArray());
+		for (AnnotationCommand command : commands) {
+			command.register(jda);
+		}
+
+		propagate(jda);
+	}
+
 	public static void propagate(JDA jda) {
 		CommandListUpdateAction action = jda.updateCommands();
 		action.addCommands(toPropagate).complete();
@@ -5,6 +5,13 @@ import com.jazzkuh.commandlib.common.AnnotationCommandSender;
 import com.jazzkuh.commandlib.common.annotations.*;
 import com.jazzkuh.commandlib.common.annotations.Optional;
 import com.jazzkuh.commandlib.common.exception.*;
+import com.jazzkuh.commandlib.common.interceptor.CommandInvocation;
+import com.jazzkuh.commandlib.common.interceptor.InterceptorChain;
+import com.jazzkuh.commandlib.common.metrics.CommandMetrics;
+import com.jazzkuh.commandlib.common.metrics.CommandPhase;
+import com.jazzkuh.commandlib.common.metrics.Metrics;
+import com.jazzkuh.commandlib.common.options.OptionSpec;
+import com.jazzkuh.commandlib.common.ratelimit.RateLimits;
 import com.jazzkuh.commandlib.common.resolvers.CompletionResolver;
 import com.jazzkuh.commandlib.common.resolvers.ContextResolver;
 import com.jazzkuh.commandlib.common.resolvers.Resolvers;
@@ -15,34 +22,79 @@ import java.util.*;
 
 public record JDACommandExecutor<T>(JDASubCommand subCommand, AnnotationCommandImpl annotationCommand) {
     public void execute(AnnotationCommandSender<T> sender, String[] args) throws CommandException {
+        InterceptorChain chain = this.subCommand.getInterceptors().get();
+        if (chain.isEmpty()) {
+            this.dispatch(sender, args);
+            return;
+        }
+
+        CommandInvocation invocation = chain.begin(this.annotationCommand, this.subCommand.getName(), this.subCommand.getMethod(), sender.getSender(), args);
+        try {
+            chain.before(invocation);
+            this.dispatch(sender, args);
+            chain.after(invocation);
+        } catch (CommandException exception) {
+            chain.onError(invocation, exception);
+            throw exception;
+        } catch (RuntimeException exception) {
+            chain.onError(invocation, new ErrorException(exception.getMessage()));
+            throw exception;
+        } finally {
+            chain.end(invocation);
+        }
+    }
+
+    private void dispatch(AnnotationCommandSender<T> sender, String[] args) throws CommandException {
+        CommandMetrics metrics = Metrics.getCommandMetrics();
+        String commandName = this.annotationCommand.getCommandName();
+        long start = System.nanoTime();
+
         Method method = this.subCommand.getMethod();
+        if (!method.getParameterTypes()[0].isInstance(sender.getSender())) throw new SenderException();
+        OptionSpec options = OptionSpec.of(method);
+        String[] optionValues = null;
+        if (!options.isEmpty()) {
+            OptionSpec.ParsedArguments parsed = options.parse(args);
+            args = parsed.positional();
+            optionValues = parsed.values();
+        }
+
         List<Parameter> parameters = Arrays.stream(this.subCommand.getMethod().getParameters()).toList();
 
         Object[] resolvedParameters = new Object[parameters.size()];
         resolvedParameters[0] = sender.getSender();
 
-        int size = parameters.stream().filter(parameter -> !parameter.isAnnotationPresent(Optional.class)).toList().size();
+        int size = parameters.stream().filter(parameter -> !parameter.isAnnotationPresent(Optional.class) && !OptionSpec.isOption(parameter)).toList().size();
         int paramSize = method.isAnnotationPresent(Main.class) ? size - 1 : size;
 
         if (args.length < paramSize) throw new ArgumentException();
-        if (!method.getParameterTypes()[0].isInstance(sender.getSender())) throw new PermissionException("You are not allowed to execute this command.");
+        RateLimits.acquire(this.annotationCommand, method, sender.getSender());
 
+        long resolveStart = System.nanoTime();
+        metrics.recordPhase(commandName, this.subCommand.getName(), CommandPhase.PARSE, resolveStart - start);
+
+        int position = method.isAnnotationPresent(Main.class) ? 0 : 1;
         for (int i = 1; i < parameters.size(); i++) {
             Parameter parameter = parameters.get(i);
             Class<?> paramClass = parameter.getType();
+            if (options.isOption(i)) {
+                resolvedParameters[i] = OptionSpec.resolve(parameter, optionValues[i]);
+                continue;
+            }
+
+            int argumentIndex = position++;
             ContextResolver<?> contextResolver = Resolvers.context(paramClass);
             if (contextResolver == null) {
                 if (!paramClass.isEnum()) throw new ContextResolverException(paramClass.getName());
 
-                int argumentIndex = method.isAnnotationPresent(Main.class) ? i - 1 : i;
                 if (args.length <= argumentIndex && parameter.isAnnotationPresent(Optional.class)) {
                     resolvedParameters[i] = null;
                 } else {
                     Object resolvedObject;
                     try {
-                        resolvedObject = Enum.valueOf((Class<? extends Enum>) paramClass, method.isAnnotationPresent(Main.class) ? args[i - 1].toUpperCase() : args[i].toUpperCase());
+                        resolvedObject = Enum.valueOf((Class<? extends Enum>) paramClass, args[argumentIndex].toUpperCase());
                     } catch (Exception exception) {
-                        throw new ParameterException("Cannot resolver parameter " + (method.isAnnotationPresent(Main.class) ? args[i - 1] : args[i]) + " for type " + paramClass.getSimpleName());
+                        throw new ParameterException("Cannot resolver parameter " + args[argumentIndex] + " for type " + paramClass.getSimpleName());
                     }
 
                     resolvedParameters[i] = resolvedObject;
@@ -50,7 +102,6 @@ public record JDACommandExecutor<T>(JDASubCommand subCommand, AnnotationCommandI
                 continue;
             }
 
-            int argumentIndex = method.isAnnotationPresent(Main.class) ? i - 1 : i;
             if (args.length <= argumentIndex && parameter.isAnnotationPresent(Optional.class)) {
                 resolvedParameters[i] = null;
             } else {
@@ -60,20 +111,25 @@ public record JDACommandExecutor<T>(JDASubCommand subCommand, AnnotationCommandI
                     continue;
                 }
 
-                Object resolvedObject = contextResolver.resolve(method.isAnnotationPresent(Main.class) ? args[i - 1] : args[i]);
+                Object resolvedObject = contextResolver.resolve(args[argumentIndex]);
                 if (resolvedObject == null) {
-                    throw new ParameterException("Cannot resolver parameter " + (method.isAnnotationPresent(Main.class) ? args[i - 1] : args[i]) + " for type " + paramClass.getSimpleName());
+                    throw new ParameterException("Cannot resolver parameter " + args[argumentIndex] + " for type " + paramClass.getSimpleName());
                 }
                 resolvedParameters[i] = resolvedObject;
             }
         }
 
+        long invokeStart = System.nanoTime();
+        metrics.recordPhase(commandName, this.subCommand.getName(), CommandPhase.RESOLVE, invokeStart - resolveStart);
+
         try {
             method.setAccessible(true);
             method.invoke(this.annotationCommand, resolvedParameters);
         } catch (Exception exception) {
             exception.printStackTrace();
             throw new ErrorException(exception.getMessage());
+        } finally {
+            metrics.recordPhase(commandName, this.subCommand.getName(), CommandPhase.INVOKE, System.nanoTime() - invokeStart);
         }
     }
 }
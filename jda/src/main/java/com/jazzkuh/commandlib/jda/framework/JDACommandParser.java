@@ -2,10 +2,12 @@ package com.jazzkuh.commandlib.jda.framework;
 
 import com.jazzkuh.commandlib.common.AnnotationCommandImpl;
 import com.jazzkuh.commandlib.common.annotations.*;
+import com.jazzkuh.commandlib.common.options.OptionSpec;
 import com.jazzkuh.commandlib.jda.annotations.DiscordPermission;
 import com.jazzkuh.commandlib.jda.annotations.Option;
 import net.dv8tion.jda.api.Permission;
 
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.ArrayList;
@@ -39,18 +41,16 @@ public class JDACommandParser {
             StringBuilder paramUsage = new StringBuilder();
             for (int i = 1; i < parameters.size(); i++) {
                 Parameter parameter = parameters.get(i);
+                if (OptionSpec.isOption(parameter)) continue;
+
                 paramUsage.append("<").append(parameter.getName());
                 if (parameter.getType().isArray()) {
                     paramUsage.append("...");
                 }
-                paramUsage.append(">");
-
-                if (i != parameters.size() - 1) {
-                    paramUsage.append(" ");
-                }
+                paramUsage.append("> ");
             }
 
-            usage = paramUsage.toString();
+            usage = paramUsage.toString().trim();
         }
         usage = !usage.isEmpty() ? " " + usage : "";
 
@@ -58,14 +58,32 @@ public class JDACommandParser {
             Parameter parameter = parameters.get(i);
             Class<?> paramClass = parameter.getType();
 
+            if (!parameter.isAnnotationPresent(Option.class) && OptionSpec.isOption(parameter)) {
+                // flags and named options map onto optional slash command options of the same name
+                Flag flag = parameter.getAnnotation(Flag.class);
+                String optionName = flag != null ? flag.value()[0] : parameter.getAnnotation(Named.class).value();
+                commandParameters.add(new CommandParameter(optionName.replaceFirst("^-+", "").toLowerCase(), "", true, flag != null ? Boolean.class : wrap(paramClass), parameter));
+                continue;
+            }
+
             if (!parameter.isAnnotationPresent(Option.class)) {
                 throw new IllegalArgumentException("Parameter " + parameter.getName() + " is missing an Id annotation.");
             }
 
             Option option = parameter.getAnnotation(Option.class);
-            commandParameters.add(new CommandParameter(option.value(), option.description(), parameter.isAnnotationPresent(Optional.class), paramClass, parameter));
+            commandParameters.add(new CommandParameter(option.value(), option.description(), parameter.isAnnotationPresent(Optional.class) || OptionSpec.isOption(parameter), paramClass, parameter));
         }
 
-        return new JDASubCommand(name, usage, aliases, description, permission, method, commandParameters);
+        JDASubCommand subCommand = new JDASubCommand(name, usage, aliases, description, permission, method, commandParameters);
+        // compile the interceptor chain up front so the first dispatch does not pay for it
+        subCommand.getInterceptors().get();
+        return subCommand;
+    }
+
+    /**
+     * @return the wrapper type of a primitive type, as the option types of the loader are keyed by wrapper types
+     */
+    private static Class<?> wrap(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
     }
 }
@@ -1,5 +1,6 @@
 package com.jazzkuh.commandlib.jda.framework;
 
+import com.jazzkuh.commandlib.common.interceptor.InterceptorSlot;
 import lombok.Getter;
 import net.dv8tion.jda.api.Permission;
 
@@ -7,5 +8,9 @@ import java.lang.reflect.Method;
 import java.util.List;
 
 public record JDASubCommand(@Getter String name, @Getter String usage, @Getter List<String> aliases,
-                            @Getter String description, @Getter Permission permission, @Getter Method method, @Getter List<CommandParameter> commandParameters) {
+                            @Getter String description, @Getter Permission permission, @Getter Method method, @Getter List<CommandParameter> commandParameters,
+                            @Getter InterceptorSlot interceptors) {
+    public JDASubCommand(String name, String usage, List<String> aliases, String description, Permission permission, Method method, List<CommandParameter> commandParameters) {
+        this(name, usage, aliases, description, permission, method, commandParameters, new InterceptorSlot(method));
+    }
 }
@@ -1,12 +1,27 @@
 package com.jazzkuh.commandlib.minestom;
 
 import com.jazzkuh.commandlib.common.*;
-import com.jazzkuh.commandlib.common.annotations.Main;
+import com.jazzkuh.commandlib.common.completion.SubcommandSuggester;
 import com.jazzkuh.commandlib.common.annotations.Optional;
-import com.jazzkuh.commandlib.common.annotations.Subcommand;
 import com.jazzkuh.commandlib.common.exception.*;
-import com.jazzkuh.commandlib.common.resolvers.ContextResolver;
+import com.jazzkuh.commandlib.common.help.HelpIndex;
+import com.jazzkuh.commandlib.common.metrics.CommandMetrics;
+import com.jazzkuh.commandlib.common.metrics.CommandPhase;
+import com.jazzkuh.commandlib.common.metrics.Metrics;
+import com.jazzkuh.commandlib.common.metrics.StartupPhase;
+import com.jazzkuh.commandlib.common.metrics.StartupProfiler;
+import com.jazzkuh.commandlib.common.options.OptionSpec;
+import com.jazzkuh.commandlib.common.permission.CommandVisibility;
+import com.jazzkuh.commandlib.common.ratelimit.RateLimits;
+import com.jazzkuh.commandlib.common.registry.DispatchSlot;
+import com.jazzkuh.commandlib.common.resolvers.ArgumentResolver;
+import com.jazzkuh.commandlib.common.resolvers.CompletionResolver;
+import com.jazzkuh.commandlib.common.resolvers.ResolutionContext;
+import com.jazzkuh.commandlib.common.resolvers.ResolveResult;
 import com.jazzkuh.commandlib.common.resolvers.Resolvers;
+import com.jazzkuh.commandlib.common.resolvers.Variadics;
+import com.jazzkuh.commandlib.common.tokenizer.ArgumentTokenizer;
+import com.jazzkuh.commandlib.common.tokenizer.ArgumentTokens;
 import com.jazzkuh.commandlib.minestom.terminal.LoggingConsoleSender;
 import com.jazzkuh.commandlib.minestom.utils.StringUtils;
 import com.jazzkuh.commandlib.minestom.utils.permission.Permissable;
@@ -19,10 +34,18 @@ import net.minestom.server.command.CommandSender;
 import net.minestom.server.command.ConsoleSender;
 import net.minestom.server.command.builder.Command;
 import net.minestom.server.command.builder.CommandContext;
+import net.minestom.server.command.builder.arguments.Argument;
+import net.minestom.server.command.builder.arguments.ArgumentEnum;
+import net.minestom.server.command.builder.arguments.ArgumentString;
 import net.minestom.server.command.builder.arguments.ArgumentStringArray;
+import net.minestom.server.command.builder.arguments.ArgumentType;
+import net.minestom.server.command.builder.arguments.ArgumentWord;
+import net.minestom.server.command.builder.condition.CommandCondition;
 import net.minestom.server.command.builder.suggestion.SuggestionEntry;
 import net.minestom.server.entity.Player;
+import net.minestom.server.utils.entity.EntityFinder;
 import org.codehaus.plexus.util.ReflectionUtils;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -30,6 +53,7 @@ import java.lang.reflect.Parameter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 
 public class AnnotationCommand extends Command implements AnnotationCommandImpl {
     private static final ComponentLogger LOGGER = ComponentLogger.logger("CommandLibrary");
@@ -37,6 +61,11 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
     protected String commandName;
     protected final List<AnnotationSubCommand> mainCommands = new ArrayList<>();
     protected final List<AnnotationSubCommand> subCommands = new ArrayList<>();
+    protected SubcommandSuggester subcommandSuggester;
+    protected CommandVisibility visibility;
+    protected SenderOverloads overloads;
+    private volatile DispatchSlot<AnnotationCommand> slot;
+    private CommandManager commandManager;
 
     public AnnotationCommand(String commandName) {
         super(commandName);
@@ -60,11 +89,9 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
         nameField.setAccessible(true);
         nameField.set(this, this.commandName);
 
-        List<Method> mainCommandMethods = Arrays.stream(this.getClass().getMethods())
-                .filter(method -> method.isAnnotationPresent(Main.class))
-                .toList();
-
-        mainCommandMethods.forEach(method -> this.mainCommands.add(AnnotationCommandParser.parse(this, method)));
+        AnnotationCommandParser.parse(this, this.mainCommands, this.subCommands);
+        long start = StartupProfiler.start();
+        this.reindex();
 
         List<String> allAliases = new ArrayList<>();
         for (AnnotationSubCommand mainCommand : this.mainCommands) {
@@ -83,18 +110,144 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
         namesField.setAccessible(true);
         namesField.set(this, names.toArray(new String[0]));
 
-        List<Method> subcommandMethods = Arrays.stream(this.getClass().getMethods())
-                .filter(method -> method.isAnnotationPresent(Subcommand.class))
-                .toList();
-        subcommandMethods.forEach(method -> this.subCommands.add(AnnotationCommandParser.parse(this, method)));
+        setDefaultExecutor(this::execute);
+        for (AnnotationSubCommand mainCommand : this.mainCommands) {
+            if (this.overloads.isPrimary(mainCommand)) this.addSyntaxes(mainCommand, new String[0], List.of());
+        }
+
+        for (AnnotationSubCommand subCommand : this.subCommands) {
+            if (!this.overloads.isPrimary(subCommand)) continue;
+            String[] name = subCommand.getName().trim().split("\\s+");
+            List<Argument<?>> literals = new ArrayList<>();
+            for (String token : name) {
+                literals.add(ArgumentType.Literal(token));
+            }
+            this.addSyntaxes(subCommand, name, literals);
+
+            if (!subCommand.getAliases().isEmpty()) {
+                ArgumentWord alias = ArgumentType.Word("alias").from(subCommand.getAliases().toArray(new String[0]));
+                this.addSyntaxes(subCommand, name, List.of(alias));
+            }
+        }
+
+        boolean allMainCommandsHavePermissions = !this.mainCommands.isEmpty() &&
+                this.mainCommands.stream().allMatch(cmd -> cmd.getPermission() != null);
+
+        if (allMainCommandsHavePermissions) {
+            setCondition((commandSender, s) -> this.visibility.anyMainVisible(this.visible(commandSender)));
+        }
+        StartupProfiler.stop(this.getClass(), StartupPhase.BINDING, start);
+    }
+
+    /**
+     * Rebuilds the suggester, visibility masks and sender variants from the current main and subcommands. Subclasses
+     * that add subcommands after construction must call this before the command is used; the typed syntaxes are not
+     * rebuilt, so such subcommands are only reached through the default executor.
+     */
+    protected void reindex() {
+        this.subcommandSuggester = new SubcommandSuggester(this.subCommands);
+        this.visibility = new CommandVisibility(this.mainCommands, this.subCommands);
+        this.overloads = new SenderOverloads(this.mainCommands, this.subCommands);
+    }
+
+    private void addSyntaxes(AnnotationSubCommand subCommand, String[] name, List<Argument<?>> prefix) {
+        CommandCondition condition = (sender, input) -> {
+            // a sender that no variant accepts is rejected with a sender error when executing instead
+            AnnotationSubCommand variant = this.overloads.select(subCommand, sender);
+            return variant == null
+                    || variant.getPermission() == null
+                    || sender instanceof ConsoleSender
+                    || this.visibility.isVisible(this.visible(sender), variant);
+        };
+
+        List<AnnotationParameter> parameters = subCommand.getParameters();
+        List<Argument<?>> arguments = new ArrayList<>();
+        for (AnnotationParameter parameter : parameters) {
+            Argument<?> argument = this.argument(parameter);
+            if (argument == null) {
+                this.addStringArraySyntax(condition, name, prefix);
+                return;
+            }
+
+            arguments.add(argument);
+            if (argument instanceof ArgumentStringArray) break;
+        }
+
+        for (int count = arguments.size(); count >= 0; count--) {
+            if (count < arguments.size() && !parameters.get(count).isOptional()) break;
+            if (prefix.isEmpty() && count == 0) continue;
+
+            List<Argument<?>> syntax = new ArrayList<>(prefix);
+            List<Argument<?>> bound = List.copyOf(arguments.subList(0, count));
+            syntax.addAll(bound);
+            addConditionalSyntax(condition, (sender, context) -> this.executeCommand(subCommand, sender, this.arguments(context), null, new TypedArguments(context, bound)), syntax.toArray(new Argument<?>[0]));
+        }
+    }
+
+    private Argument<?> argument(AnnotationParameter parameter) {
+        Class<?> type = parameter.getType();
+        String id = parameter.getName();
+        if (Variadics.isVariadic(type) || OptionSpec.isOption(parameter.getParameter())) return null;
+        if (parameter.isGreedy() && type == String.class) return ArgumentType.StringArray(id);
+
+        if (parameter.getCompletion() == null) {
+            if (type == int.class || type == Integer.class) return ArgumentType.Integer(id);
+            if (type == long.class || type == Long.class) return ArgumentType.Long(id);
+            if (type == double.class || type == Double.class) return ArgumentType.Double(id);
+            if (type == float.class || type == Float.class) return ArgumentType.Float(id);
+            if (type == boolean.class || type == Boolean.class) return ArgumentType.Boolean(id);
+            if (type == UUID.class) return ArgumentType.UUID(id);
+            if (type == Player.class) return ArgumentType.Entity(id).onlyPlayers(true).singleEntity(true);
+            if (type.isEnum()) return ArgumentType.Enum(id, (Class) type).setFormat(ArgumentEnum.Format.LOWER_CASED);
+        }
+
+        if (type != String.class && !type.isEnum() && Resolvers.context(type) == null) return null;
+
+        // a string argument also accepts a quoted value with spaces, like the tokenizer does
+        ArgumentString argument = ArgumentType.String(id);
+        CompletionResolver<CommandSender> completionResolver = parameter.getCompletion() != null
+                ? Resolvers.completion(parameter.getCompletion())
+                : Resolvers.completion(type);
+        if (completionResolver != null) {
+            argument.setSuggestionCallback((sender, context, suggestion) -> {
+                long start = System.nanoTime();
+                String value = context.get(argument);
+                String partial = value == null || value.equals("\u0000") ? "" : value;
+                String input = context.getInput().replace("\u0000", "");
+
+                List<String> candidates = MinestomCommandLoader.getCompletionCoalescer().completeNow(this.getSenderKey(sender), input, () -> {
+                    List<String> matches = new ArrayList<>();
+                    for (String candidate : completionResolver.resolve(new AnnotationCommandSender<>(sender), partial)) {
+                        if (StringUtils.startsWithIgnoreCase(candidate, partial)) matches.add(candidate);
+                    }
+                    return matches;
+                });
+
+                for (String candidate : candidates) {
+                    suggestion.addEntry(new SuggestionEntry(candidate));
+                }
+                Metrics.getCommandMetrics().recordCompletion(this.getCommandName(), System.nanoTime() - start);
+            });
+        }
+
+        return argument;
+    }
 
+    private void addStringArraySyntax(CommandCondition condition, String[] name, List<Argument<?>> prefix) {
         ArgumentStringArray params = new ArgumentStringArray("params");
-        params.setDefaultValue(new String[0]);
         params.setSuggestionCallback((sender, context, suggestionCallback) -> {
-            String[] args = this.fixArguments(context.get(params));
-
-            List<String> suggestions = this.suggest(sender, args);
-            if (suggestions.isEmpty()) return;
+            String raw = context.getInput().replace("\u0000", "");
+            ArgumentTokens tokens = ArgumentTokenizer.tokenize(raw);
+            // skip the label and the typed name literals or alias, which are replaced by the full name
+            String[] values = tokens.toCompletionArray(Math.min(1 + prefix.size(), tokens.size()));
+            String[] args = new String[name.length + values.length];
+            System.arraycopy(name, 0, args, 0, name.length);
+            System.arraycopy(values, 0, args, name.length, values.length);
+
+            long start = System.nanoTime();
+            String input = this.getCommandName() + " " + String.join(" ", args);
+            List<String> suggestions = MinestomCommandLoader.getCompletionCoalescer().completeNow(this.getSenderKey(sender), input, () -> ArgumentTokenizer.fitCompletions(raw, this.suggest(sender, args)));
+            Metrics.getCommandMetrics().recordCompletion(this.getCommandName(), System.nanoTime() - start);
             for (String suggestion : suggestions) {
                 SuggestionEntry suggestionEntry = new SuggestionEntry(suggestion);
                 if (suggestionCallback.getEntries().contains(suggestionEntry)) continue;
@@ -102,32 +255,62 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
             }
         });
 
-        setDefaultExecutor(this::execute);
-        addSyntax(this::execute, params);
-
-        boolean allMainCommandsHavePermissions = !this.mainCommands.isEmpty() &&
-                this.mainCommands.stream().allMatch(cmd -> cmd.getPermission() != null);
+        List<Argument<?>> syntax = new ArrayList<>(prefix);
+        syntax.add(params);
+        addConditionalSyntax(condition, this::execute, syntax.toArray(new Argument<?>[0]));
+    }
 
-        if (allMainCommandsHavePermissions) {
-            setCondition((commandSender, s) -> {
-                Permissable permissable = new Permissable(null);
-                if (commandSender instanceof Player player) {
-                    permissable = new Permissable(player.getUuid());
+    private Object[] bind(AnnotationSubCommand subCommand, CommandSender sender, TypedArguments typedArguments) throws CommandException {
+        List<AnnotationParameter> parameters = subCommand.getParameters();
+        Object[] values = new Object[parameters.size()];
+        // resolvers see the sender and the values bound so far, at the indices of the method parameters
+        Object[] resolved = new Object[parameters.size() + 1];
+        resolved[0] = sender;
+        ResolutionContext<CommandSender> context = null;
+        for (int i = 0; i < typedArguments.arguments().size(); i++) {
+            Argument<?> argument = typedArguments.arguments().get(i);
+            Class<?> type = parameters.get(i).getType();
+
+            Object value = typedArguments.context().get(argument);
+            if (value instanceof EntityFinder finder) {
+                value = finder.findFirstPlayer(sender);
+            } else if (value instanceof String[] array) {
+                value = String.join(" ", array);
+            } else if (value instanceof String raw && type != String.class) {
+                ArgumentResolver<?> argumentResolver = Resolvers.argument(type);
+                if (argumentResolver != null) {
+                    if (context == null) context = new ResolutionContext<>(new AnnotationCommandSender<>(sender), this, resolved);
+                    ResolveResult<?> result = argumentResolver.resolve(raw, context.at(i + 1, parameters.get(i).getParameter()));
+                    if (!result.isSuccess() && result.getError() != null) throw new ParameterException(result.getError());
+                    value = result.getValue();
+                } else if (type.isEnum()) {
+                    value = Arrays.stream(type.getEnumConstants()).filter(constant -> ((Enum<?>) constant).name().equalsIgnoreCase(raw)).findFirst().orElse(null);
+                } else {
+                    value = null;
                 }
+            }
 
-                Permissable finalPermissable = permissable;
-                return this.mainCommands.stream().anyMatch(cmd -> finalPermissable.hasPermission(cmd.getPermission()));
-            });
+            if (value == null) {
+                throw new ParameterException("Cannot resolver parameter " + typedArguments.context().getRaw(argument.getId()) + " for type " + type.getSimpleName());
+            }
+            values[i] = value;
+            resolved[i + 1] = value;
         }
+
+        return values;
     }
 
-    private String[] fixArguments(String[] args) {
-        if (args.length > 0 && args[args.length - 1].equals("\u0000")) {
-            args = Arrays.copyOf(args, args.length);
-            args[args.length - 1] = "";
-        }
+    private String[] arguments(CommandContext context) {
+        return ArgumentTokenizer.tokenize(context.getInput()).toArray(1);
+    }
 
-        return args;
+    private Permissable permissable(CommandSender sender) {
+        if (sender instanceof Player player) return new Permissable(player.getUuid());
+        return new Permissable(null);
+    }
+
+    private long[] visible(CommandSender sender) {
+        return this.visibility.resolve(this.getSenderKey(sender), this.permissable(sender)::hasPermission);
     }
 
     @Override
@@ -135,8 +318,30 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
         return this.commandName;
     }
 
+    @Override
+    public long getSenderKey(Object sender) {
+        return sender instanceof Player player ? RateLimits.key(player.getUuid()) : RateLimits.EXEMPT;
+    }
+
+    @Override
+    public String getSenderName(Object sender) {
+        return sender instanceof Player player ? player.getUsername() : "CONSOLE";
+    }
+
+    @Override
+    public boolean hasBypass(Object sender, String permission) {
+        return sender instanceof Player player && new Permissable(player.getUuid()).hasPermission(permission);
+    }
+
     public void execute(CommandSender sender, CommandContext context) {
-        String[] args = Arrays.stream(context.getInput().split(" ")).skip(1).toArray(String[]::new);
+        AnnotationCommand current = this.current();
+        if (current != this) {
+            current.execute(sender, context);
+            return;
+        }
+
+        ArgumentTokens tokens = ArgumentTokenizer.tokenize(context.getInput());
+        String[] args = tokens.toArray(1);
 
         if (args.length < 1) {
             if (this.mainCommands.isEmpty()) {
@@ -144,8 +349,8 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
                 return;
             }
 
-            if (this.mainCommands.size() == 1) {
-                this.executeCommand(this.mainCommands.get(0), sender, args);
+            if (this.overloads.getMain() != null) {
+                this.executeCommand(this.overloads.getMain(), sender, args, tokens);
             } else {
                 this.formatUsage(sender);
             }
@@ -155,25 +360,35 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
         for (AnnotationSubCommand subCommand : subCommands) {
             if (!args[0].equalsIgnoreCase(subCommand.getName()) && !subCommand.getAliases().contains(args[0].toLowerCase()))
                 continue;
-            this.executeCommand(subCommand, sender, args);
+            this.executeCommand(subCommand, sender, args, tokens);
             return;
         }
 
-        AnnotationSubCommand matchingCommand = findMatchingMainCommand(args);
+        AnnotationSubCommand matchingCommand = findMatchingMainCommand(sender, args);
         if (matchingCommand != null) {
-            this.executeCommand(matchingCommand, sender, args);
-        } else {
+            this.executeCommand(matchingCommand, sender, args, tokens);
+        } else if (!this.suggestSubcommands(sender, args[0])) {
             this.formatUsage(sender);
         }
     }
 
-    private AnnotationSubCommand findMatchingMainCommand(String[] args) {
-        if (mainCommands.size() == 1) {
-            return mainCommands.get(0);
+    private boolean suggestSubcommands(CommandSender sender, String input) {
+        long[] visible = this.visible(sender);
+        List<String> suggestions = this.subcommandSuggester.suggest(input, subCommand -> sender instanceof ConsoleSender
+                || this.visibility.isVisible(visible, subCommand));
+        if (suggestions.isEmpty()) return false;
+
+        sender.sendMessage(MinestomCommandLoader.getFormattingProvider().formatSuggestions(this.getCommandName(), suggestions));
+        return true;
+    }
+
+    AnnotationSubCommand findMatchingMainCommand(CommandSender sender, String[] args) {
+        if (this.overloads.getMain() != null) {
+            return this.overloads.getMain();
         }
 
         for (AnnotationSubCommand mainCommand : mainCommands) {
-            if (canCommandHandleArgs(mainCommand, args)) {
+            if (canCommandHandleArgs(mainCommand, sender, args)) {
                 return mainCommand;
             }
         }
@@ -181,7 +396,7 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
         return null;
     }
 
-    private boolean canCommandHandleArgs(AnnotationSubCommand command, String[] args) {
+    private boolean canCommandHandleArgs(AnnotationSubCommand command, CommandSender sender, String[] args) {
         Method method = command.getMethod();
         Parameter[] parameters = method.getParameters();
 
@@ -198,82 +413,54 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
             return false;
         }
 
+        Object[] resolved = new Object[parameters.length];
+        resolved[0] = sender;
+        ResolutionContext<CommandSender> context = new ResolutionContext<>(new AnnotationCommandSender<>(sender), this, resolved);
         for (int i = 0; i < args.length && i + 1 < parameters.length; i++) {
             Parameter param = parameters[i + 1];
-            Class<?> paramType = param.getType();
-            String arg = args[i];
-
-            if (!isArgCompatibleWithType(arg, paramType)) {
+            Object value = resolveArgument(args[i], param.getType(), context.at(i + 1, param));
+            if (value == null) {
                 return false;
             }
+            resolved[i + 1] = value;
         }
 
         return true;
     }
 
-    private boolean isArgCompatibleWithType(String arg, Class<?> type) {
-        if (type == int.class || type == Integer.class) {
-            try {
-                Integer.parseInt(arg);
-                return true;
-            } catch (NumberFormatException e) {
-                return false;
-            }
-        }
-
-        if (type == double.class || type == Double.class) {
-            try {
-                Double.parseDouble(arg);
-                return true;
-            } catch (NumberFormatException e) {
-                return false;
-            }
-        }
-
-        if (type == float.class || type == Float.class) {
-            try {
-                Float.parseFloat(arg);
-                return true;
-            } catch (NumberFormatException e) {
-                return false;
-            }
-        }
-
-        if (type == long.class || type == Long.class) {
-            try {
-                Long.parseLong(arg);
-                return true;
-            } catch (NumberFormatException e) {
-                return false;
-            }
-        }
-
-        if (type == boolean.class || type == Boolean.class) {
-            return "true".equalsIgnoreCase(arg) || "false".equalsIgnoreCase(arg);
-        }
-
+    /**
+     * @return the argument resolved to the type, or {@code null} if it is not compatible
+     */
+    @Nullable
+    private Object resolveArgument(String arg, Class<?> type, ResolutionContext<CommandSender> context) {
         if (type.isEnum()) {
             try {
-                Enum.valueOf((Class<? extends Enum>) type, arg.toUpperCase());
-                return true;
+                return Enum.valueOf((Class<? extends Enum>) type, arg.toUpperCase());
             } catch (IllegalArgumentException e) {
-                return false;
+                return null;
             }
         }
 
-        ContextResolver<?> resolver = Resolvers.context(type);
-        if (resolver != null) {
-            try {
-                return resolver.resolve(arg) != null;
-            } catch (Exception e) {
-                return false;
-            }
+        ArgumentResolver<?> resolver = Resolvers.argument(type);
+        if (resolver == null) return type == String.class ? arg : null;
+
+        try {
+            ResolveResult<?> result = resolver.resolve(arg, context);
+            return result.isSuccess() ? result.getValue() : null;
+        } catch (Exception e) {
+            return null;
         }
+    }
 
-        return type == String.class;
+    private void executeCommand(AnnotationSubCommand subCommand, CommandSender sender, String[] args, ArgumentTokens tokens) {
+        this.executeCommand(subCommand, sender, args, tokens, null);
     }
 
-    private void executeCommand(AnnotationSubCommand subCommand, CommandSender sender, String[] args) {
+    /**
+     * @param tokens         the tokens of the input, the label included, or null on the typed path
+     * @param typedArguments the arguments Minestom parsed for a typed syntax, or null to resolve the raw arguments
+     */
+    private void executeCommand(AnnotationSubCommand subCommand, CommandSender sender, String[] args, @Nullable ArgumentTokens tokens, @Nullable TypedArguments typedArguments) {
         Permissable permissable = new Permissable(null);
         if (sender instanceof ConsoleSender) sender = new LoggingConsoleSender();
         if (sender instanceof Player player) {
@@ -283,8 +470,22 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
             }
         }
 
-        if (subCommand.getPermission() != null && !(sender instanceof ConsoleSender) && !permissable.hasPermission(subCommand.getPermission())) {
+        AnnotationSubCommand selected = this.overloads.select(subCommand, sender);
+        CommandMetrics metrics = Metrics.getCommandMetrics();
+        long start = System.nanoTime();
+        if (selected == null) {
+            SenderException senderException = new SenderException();
+            metrics.recordOutcome(this.getCommandName(), subCommand.getName(), senderException, System.nanoTime() - start);
+            sender.sendMessage(MinestomCommandLoader.getFormattingProvider().formatError(senderException, senderException.getMessage()));
+            return;
+        }
+        subCommand = selected;
+
+        boolean permitted = subCommand.getPermission() == null || sender instanceof ConsoleSender || permissable.hasPermission(subCommand.getPermission());
+        metrics.recordPhase(this.getCommandName(), subCommand.getName(), CommandPhase.PERMISSION, System.nanoTime() - start);
+        if (!permitted) {
             PermissionException permissionException = new PermissionException("You do not have permission to use this command.");
+            metrics.recordOutcome(this.getCommandName(), subCommand.getName(), permissionException, System.nanoTime() - start);
             sender.sendMessage(MinestomCommandLoader.getFormattingProvider().formatError(permissionException, permissionException.getMessage()));
             return;
         }
@@ -293,16 +494,23 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
         AnnotationCommandSender<CommandSender> commandSender = new AnnotationCommandSender<>(sender);
 
         try {
-            commandExecutor.execute(commandSender, args);
+            if (typedArguments != null) commandExecutor.executeResolved(commandSender, args, () -> this.bind(selected, commandSender.getSender(), typedArguments));
+            else commandExecutor.execute(commandSender, args, tokens, 1);
+            metrics.recordOutcome(this.getCommandName(), subCommand.getName(), null, System.nanoTime() - start);
         } catch (CommandException commandException) {
+            metrics.recordOutcome(this.getCommandName(), subCommand.getName(), commandException, System.nanoTime() - start);
             if (commandException instanceof ArgumentException) {
                 this.formatUsage(sender);
             } else if (commandException instanceof PermissionException permissionException) {
                 sender.sendMessage(MinestomCommandLoader.getFormattingProvider().formatError(commandException, permissionException.getMessage()));
+            } else if (commandException instanceof SenderException senderException) {
+                sender.sendMessage(MinestomCommandLoader.getFormattingProvider().formatError(commandException, senderException.getMessage()));
             } else if (commandException instanceof ContextResolverException contextResolverException) {
                 sender.sendMessage(MinestomCommandLoader.getFormattingProvider().formatError(commandException, "A context resolver was not found for: " + contextResolverException.getMessage()));
             } else if (commandException instanceof ParameterException parameterException) {
                 sender.sendMessage(MinestomCommandLoader.getFormattingProvider().formatError(commandException, parameterException.getMessage()));
+            } else if (commandException instanceof CooldownException cooldownException) {
+                sender.sendMessage(MinestomCommandLoader.getFormattingProvider().formatCooldown(cooldownException));
             } else if (commandException instanceof ErrorException errorException) {
                 sender.sendMessage(MinestomCommandLoader.getFormattingProvider().formatError(commandException, "An error occurred while executing this subcommand: " + errorException.getMessage()));
             }
@@ -310,16 +518,17 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
     }
 
     public List<String> suggest(CommandSender sender, String[] args) {
+        AnnotationCommand current = this.current();
+        if (current != this) return current.suggest(sender, args);
+
         AnnotationCommandSender<CommandSender> commandSender = new AnnotationCommandSender<>(sender);
-        Permissable permissable = new Permissable(null);
-        if (sender instanceof Player player) {
-            permissable = new Permissable(player.getUuid());
-        }
+        long[] visible = this.visible(sender);
 
         List<String> options = new ArrayList<>();
 
         for (AnnotationSubCommand mainCommand : mainCommands) {
-            if (mainCommand.getPermission() == null || permissable.hasPermission(mainCommand.getPermission())) {
+            if (this.overloads.select(mainCommand, sender) != mainCommand) continue;
+            if (this.visibility.isVisible(visible, mainCommand)) {
                 AnnotationCommandExecutor<CommandSender> mainCommandExecutor = new AnnotationCommandExecutor<>(mainCommand, this);
                 options.addAll(mainCommandExecutor.complete(commandSender, args));
             }
@@ -327,27 +536,17 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
 
         if (args.length == 1 && !this.subCommands.isEmpty()) {
             for (AnnotationSubCommand subCommand : this.subCommands) {
-                if (subCommand.getPermission() == null) {
-                    options.add(subCommand.getName());
-                    continue;
-                }
-
-                if (permissable.hasPermission(subCommand.getPermission()))
-                    options.add(subCommand.getName());
+                if (this.overloads.select(subCommand, sender) != subCommand) continue;
+                if (this.visibility.isVisible(visible, subCommand)) options.add(subCommand.getName());
             }
 
             return StringUtils.copyPartialMatches(args[0], options, new ArrayList<>(options.size()));
         }
 
         for (AnnotationSubCommand subCommand : this.subCommands) {
+            if (this.overloads.select(subCommand, sender) != subCommand) continue;
             if (args.length < 1) {
-                if (subCommand.getPermission() == null) {
-                    options.add(subCommand.getName());
-                    continue;
-                }
-
-                if (permissable.hasPermission(subCommand.getPermission()))
-                    options.add(subCommand.getName());
+                if (this.visibility.isVisible(visible, subCommand)) options.add(subCommand.getName());
                 continue;
             }
 
@@ -361,36 +560,126 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
     }
 
     public void register(CommandManager commandManager) {
+        this.tryRegister(commandManager);
+    }
+
+    /**
+     * @return whether the command was registered, it is not if one of its names is already taken
+     */
+    private boolean tryRegister(CommandManager commandManager) {
         try {
+            long start = StartupProfiler.start();
             commandManager.register(this);
+            this.commandManager = commandManager;
+            HelpIndex.global().add(this, this.mainCommands, this.subCommands);
+            StartupProfiler.stop(this.getClass(), StartupPhase.REGISTRATION, start);
             if (MinestomCommandLoader.isDebug()) {
                 LOGGER.info("Registered command: {}", this.getCommandName());
                 if (!Arrays.stream(this.getAliases()).toList().isEmpty()) {
                     LOGGER.info("- Registered aliases: {}", String.join(", ", this.getAliases()));
                 }
             }
+            return true;
         } catch (Exception exception) {
             LOGGER.info("Unable to register command: {}", this.getCommandName());
+            return false;
         }
     }
 
-    public void formatUsage(CommandSender sender) {
-        Permissable permissable = new Permissable(null);
-        if (sender instanceof Player player) {
-            permissable = new Permissable(player.getUuid());
+    /**
+     * Removes this command from the command manager it was registered with.
+     */
+    public void unregister() {
+        CommandManager commandManager = this.commandManager;
+        if (commandManager == null) return;
+
+        commandManager.unregister(this);
+        this.commandManager = null;
+        HelpIndex.global().remove(this);
+        MinestomCommandLoader.refreshCommands();
+        if (MinestomCommandLoader.isDebug()) LOGGER.info("Unregistered command: {}", this.getCommandName());
+    }
+
+    /**
+     * Replaces this command with another one, for example a new instance after a module reload. Minestom keeps the
+     * syntaxes on the registered command itself, so the replacement is registered in its place. Executions reaching
+     * this command after the swap, including ones that were already being parsed, are handed to the replacement
+     * through a shared {@link DispatchSlot} without taking locks.
+     * <p>
+     * A replacement with names of its own is registered before this command is unregistered. Minestom refuses to
+     * register a name that is still taken though, so names the replacement shares with this command are unknown
+     * between unregistering this command and registering the replacement; if that fails, this command is registered
+     * again.
+     *
+     * @throws IllegalStateException if the replacement could not be registered, this command then stays registered
+     */
+    public void replace(AnnotationCommand replacement) {
+        if (replacement == this) throw new IllegalArgumentException("A command cannot replace itself");
+
+        CommandManager commandManager = this.commandManager;
+        if (commandManager == null) {
+            this.publish(replacement);
+            return;
         }
 
+        boolean shared = Arrays.stream(replacement.getNames()).anyMatch(name -> commandManager.getCommand(name) == this);
+        if (!shared) {
+            if (!replacement.tryRegister(commandManager)) {
+                throw new IllegalStateException("Unable to register the replacement of command " + this.getCommandName());
+            }
+            this.publish(replacement);
+            this.unregister();
+            return;
+        }
+
+        commandManager.unregister(this);
+        if (!replacement.tryRegister(commandManager)) {
+            commandManager.register(this);
+            throw new IllegalStateException("Unable to register the replacement of command " + this.getCommandName());
+        }
+
+        this.publish(replacement);
+        this.commandManager = null;
+        HelpIndex.global().remove(this);
+        MinestomCommandLoader.refreshCommands();
+    }
+
+    /**
+     * @return the command that handles executions of this command, which is this command unless it was replaced
+     */
+    public AnnotationCommand current() {
+        DispatchSlot<AnnotationCommand> slot = this.slot;
+        return slot == null ? this : slot.get();
+    }
+
+    /**
+     * Shares the dispatch slot of this command with the replacement and points it there.
+     */
+    private void publish(AnnotationCommand replacement) {
+        DispatchSlot<AnnotationCommand> slot = this.slot != null ? this.slot : new DispatchSlot<>(this);
+        this.slot = slot;
+        replacement.slot = slot;
+        slot.set(replacement);
+    }
+
+    private record TypedArguments(CommandContext context, List<Argument<?>> arguments) {
+    }
+
+    public void formatUsage(CommandSender sender) {
+        long[] visible = this.visible(sender);
         List<String> usageMessages = new ArrayList<>();
 
         for (AnnotationSubCommand mainCommand : this.mainCommands) {
-            if (mainCommand.getPermission() == null || permissable.hasPermission(mainCommand.getPermission())) {
+            if (this.overloads.select(mainCommand, sender) != mainCommand) continue;
+            if (this.visibility.isVisible(visible, mainCommand)) {
                 String usage = "/" + this.getCommandName() + mainCommand.getUsage() + " - " + mainCommand.getDescription();
                 usageMessages.add(usage);
             }
         }
 
         for (AnnotationSubCommand subCommand : this.subCommands) {
-            if (subCommand.getPermission() == null || permissable.hasPermission(subCommand.getPermission())) {
+            if (this.overloads.select(subCommand, sender) != subCommand) continue;
+            if (this.visibility.isVisible(visible, subCommand)) {
                 String usage = "/" + this.getCommandName() + " " + subCommand.getName() + subCommand.getUsage() + " - " + subCommand.getDescription();
                 usageMessages.add(usage);
             }
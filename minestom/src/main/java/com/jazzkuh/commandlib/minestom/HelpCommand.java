@@ -0,0 +1,38 @@
+package com.jazzkuh.commandlib.minestom;
+
+import com.jazzkuh.commandlib.common.annotations.*;
+import com.jazzkuh.commandlib.common.help.HelpEntry;
+import com.jazzkuh.commandlib.common.help.HelpIndex;
+import com.jazzkuh.commandlib.minestom.utils.permission.Permissable;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
+import net.minestom.server.command.CommandSender;
+import net.minestom.server.entity.Player;
+
+import java.util.List;
+
+/**
+ * Searches the syntaxes of every registered library command through the {@link HelpIndex}, listing only the ones the
+ * sender has permission for.
+ */
+@Command("help")
+public class HelpCommand extends AnnotationCommand {
+    private static final int LIMIT = 10;
+
+    @Subcommand("search")
+    @Usage("<terms>")
+    @Description("Searches every command by name, alias, description and usage")
+    public void search(CommandSender sender, @Greedy String terms) {
+        Permissable permissable = new Permissable(sender instanceof Player player ? player.getUuid() : null);
+        List<HelpEntry> entries = HelpIndex.global().search(terms, permissable::hasPermission, LIMIT);
+        if (entries.isEmpty()) {
+            sender.sendMessage(Component.text("No commands found for: " + terms, TextColor.fromHexString("#FF6B6B")));
+            return;
+        }
+
+        sender.sendMessage(Component.text("Commands matching " + terms + ":", TextColor.fromHexString("#FBFB00")));
+        for (HelpEntry entry : entries) {
+            sender.sendMessage(Component.text(entry.getSyntax() + " - " + entry.getSubCommand().getDescription(), TextColor.fromHexString("#FBFB00")));
+        }
+    }
+}
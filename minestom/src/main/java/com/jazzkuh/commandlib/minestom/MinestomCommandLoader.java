@@ -1,6 +1,14 @@
 package com.jazzkuh.commandlib.minestom;
 
 import com.jazzkuh.commandlib.common.chat.FormattingProvider;
+import com.jazzkuh.commandlib.common.completion.CompletionCoalescer;
+import com.jazzkuh.commandlib.common.metrics.StartupProfiler;
+import com.jazzkuh.commandlib.common.permission.CommandVisibility;
+import com.jazzkuh.commandlib.common.ratelimit.RateLimits;
+import com.jazzkuh.commandlib.common.registry.CommandIndex;
+import com.jazzkuh.commandlib.common.registry.CommandRegistry;
+import com.jazzkuh.commandlib.common.registry.MetadataCache;
+import com.jazzkuh.commandlib.common.resolvers.CachePolicy;
 import com.jazzkuh.commandlib.common.resolvers.Resolvers;
 import com.jazzkuh.commandlib.minestom.resolvers.GameModeResolver;
 import com.jazzkuh.commandlib.minestom.resolvers.PlayerResolver;
@@ -8,18 +16,35 @@ import com.jazzkuh.commandlib.minestom.terminal.MinestomTerminal;
 import com.jazzkuh.commandlib.minestom.utils.permission.PermissionProvider;
 import lombok.Getter;
 import lombok.Setter;
+import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.command.CommandManager;
 import net.minestom.server.entity.GameMode;
 import net.minestom.server.entity.Player;
+import net.minestom.server.event.player.PlayerDisconnectEvent;
+
+import java.util.Collection;
+import java.util.List;
 
 public class MinestomCommandLoader {
+    private static final ComponentLogger LOGGER = ComponentLogger.logger("CommandLibrary");
+
     @Getter @Setter
     private static FormattingProvider formattingProvider;
 
-    @Getter @Setter
+    @Getter
     private static PermissionProvider permissionProvider;
 
     @Getter @Setter
-    private static boolean debug = true;
+    private static boolean debug = false;
+
+    @Getter @Setter
+    private static CompletionCoalescer completionCoalescer = new CompletionCoalescer();
+
+    public static void setPermissionProvider(PermissionProvider permissionProvider) {
+        MinestomCommandLoader.permissionProvider = permissionProvider;
+        CommandVisibility.invalidate();
+    }
 
     public static void startTerminal() {
         MinestomTerminal.start();
@@ -30,7 +55,43 @@ public class MinestomCommandLoader {
     }
 
     public static void loadResolvers() {
-        Resolvers.register(Player.class, new PlayerResolver(), "players");
+        Resolvers.registerCached(Player.class, new PlayerResolver(), CachePolicy.bounded(1024).withWeakValues(), "players");
+        MinecraftServer.getGlobalEventHandler().addListener(PlayerDisconnectEvent.class, event -> {
+            Resolvers.invalidate(event.getPlayer());
+            CommandVisibility.forget(RateLimits.key(event.getPlayer().getUuid()));
+        });
         Resolvers.register(GameMode.class, new GameModeResolver(), "gamemodes");
     }
+
+    public static List<AnnotationCommand> registerAll(CommandManager commandManager, ClassLoader classLoader) {
+        return registerClasses(commandManager, CommandIndex.load(classLoader));
+    }
+
+    public static List<AnnotationCommand> registerAll(CommandManager commandManager, ClassLoader classLoader, String packageName) {
+        return registerClasses(commandManager, CommandIndex.scan(classLoader, packageName));
+    }
+
+    private static List<AnnotationCommand> registerClasses(CommandManager commandManager, List<Class<?>> commandClasses) {
+        List<AnnotationCommand> commands = CommandRegistry.instantiate(commandClasses, AnnotationCommand.class);
+        registerAll(commandManager, commands);
+        return commands;
+    }
+
+    public static void registerAll(CommandManager commandManager, Collection<? extends AnnotationCommand> commands) {
+        for (AnnotationCommand command : commands) {
+            command.register(commandManager);
+        }
+
+        MetadataCache.flush();
+        refreshCommands();
+
+        if (StartupProfiler.isEnabled()) StartupProfiler.report().format().forEach(LOGGER::info);
+    }
+
+    static void refreshCommands() {
+        CommandVisibility.invalidate();
+        for (Player player : MinecraftServer.getConnectionManager().getOnlinePlayers()) {
+            player.refreshCommands();
+        }
+    }
 }
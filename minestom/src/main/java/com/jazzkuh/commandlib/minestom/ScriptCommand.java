@@ -0,0 +1,92 @@
+package com.jazzkuh.commandlib.minestom;
+
+import com.jazzkuh.commandlib.common.annotations.*;
+import com.jazzkuh.commandlib.common.exception.CommandException;
+import com.jazzkuh.commandlib.common.exception.ErrorException;
+import com.jazzkuh.commandlib.common.script.*;
+import com.jazzkuh.commandlib.common.tokenizer.ArgumentTokenizer;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.command.CommandSender;
+import net.minestom.server.command.ConsoleSender;
+import net.minestom.server.command.builder.CommandResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Console command that runs a file of commands through {@link CommandScriptRunner}. Library commands are dispatched
+ * straight to their executors, other commands go through the server command manager.
+ */
+@Command("runscript")
+public class ScriptCommand extends AnnotationCommand {
+    @Main
+    @Permission("commandlibrary.script")
+    @Usage("<file> [--dry-run] [--continue-on-error] [--progress=<lines>]")
+    @Description("Runs every command in a script file")
+    public void run(ConsoleSender sender, String file, @Optional @Greedy String flags) {
+        ScriptOptions options;
+        try {
+            options = ScriptOptions.parse(flags);
+        } catch (IllegalArgumentException exception) {
+            sender.sendMessage(Component.text(exception.getMessage(), TextColor.fromHexString("#FF6B6B")));
+            return;
+        }
+
+        CommandScriptRunner runner = new CommandScriptRunner(label -> this.plan(sender, label));
+        ScriptListener listener = new ScriptListener() {
+            @Override
+            public void progress(int line, long bytesRead, long totalBytes) {
+                sender.sendMessage(Component.text("Processed " + line + " lines (" + (totalBytes == 0 ? 100 : bytesRead * 100 / totalBytes) + "%)", TextColor.fromHexString("#FBFB00")));
+            }
+
+            @Override
+            public void error(int line, String command, CommandException exception) {
+                sender.sendMessage(MinestomCommandLoader.getFormattingProvider().formatError(exception, "Line " + line + " (" + command + "): " + CommandScriptRunner.describe(exception)));
+            }
+
+            @Override
+            public void unverifiable(int line, String command) {
+                sender.sendMessage(Component.text("Line " + line + " (" + command + "): not a library command, unverifiable", TextColor.fromHexString("#FBFB00")));
+            }
+        };
+
+        try {
+            ScriptResult result = runner.run(Path.of(file), options, listener);
+            sender.sendMessage(Component.text((options.dryRun() ? "Validated " : "Executed ") + result.commands() + " commands with " + result.failures() + " failures"
+                    + (result.unverifiable() > 0 ? " and " + result.unverifiable() + " unverifiable" : "") + " in "
+                    + TimeUnit.NANOSECONDS.toMillis(result.nanos()) + "ms" + (result.aborted() ? ", aborted on the first failure." : "."), TextColor.fromHexString("#FBFB00")));
+        } catch (IOException exception) {
+            sender.sendMessage(Component.text("Unable to read script " + file + ": " + exception.getMessage(), TextColor.fromHexString("#FF6B6B")));
+        }
+    }
+
+    private ScriptPlan plan(ConsoleSender sender, String label) {
+        net.minestom.server.command.builder.Command command = MinecraftServer.getCommandManager().getCommand(label);
+        if (command == null) return null;
+        if (command instanceof AnnotationCommand registered) {
+            AnnotationCommand annotationCommand = registered.current();
+            // the console passes every permission check, as it does for chat commands
+            return new AnnotationScriptPlan<CommandSender>(annotationCommand, annotationCommand.mainCommands, annotationCommand.subCommands, sender, permission -> true);
+        }
+
+        return new ScriptPlan() {
+            @Override
+            public boolean isVerifiable() {
+                return false;
+            }
+
+            @Override
+            public void validate(String[] args) {
+            }
+
+            @Override
+            public void execute(String[] args) throws CommandException {
+                CommandResult result = MinecraftServer.getCommandManager().execute(sender, String.join(" ", label, ArgumentTokenizer.join(args)).trim());
+                if (result.getType() != CommandResult.Type.SUCCESS) throw new ErrorException("Command failed with " + result.getType().name().toLowerCase());
+            }
+        };
+    }
+}
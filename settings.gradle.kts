@@ -4,13 +4,15 @@ plugins {
 
 rootProject.name = "CommandLibrary"
 
-include("common", "spigot", "velocity", "minestom", "jda")
+include("common", "spigot", "velocity", "minestom", "jda", "benchmarks")
 
 dependencyResolutionManagement {
     repositories {
         mavenCentral()
         maven("https://jitpack.io")
         maven("https://repo.purpurmc.org/snapshots")
+        maven("https://repo.papermc.io/repository/maven-public/")
+        maven("https://libraries.minecraft.net")
         maven("https://repo.codemc.io/repository/maven-public/")
         maven("https://repo.velocitypowered.com/snapshots/")
     }
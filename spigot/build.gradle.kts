@@ -5,6 +5,9 @@ dependencies {
     compileOnly("org.purpurmc.purpur:purpur-api:1.20.4-R0.1-SNAPSHOT") {
         exclude(group = "net.kyori", module = "adventure-api")
     }
+    compileOnly("io.papermc.paper:paper-mojangapi:1.20.4-R0.1-SNAPSHOT") {
+        exclude(group = "net.kyori", module = "adventure-api")
+    }
     api("net.kyori:adventure-api:5.1.1")
     compileOnly("com.mojang:authlib:3.11.50")
 }
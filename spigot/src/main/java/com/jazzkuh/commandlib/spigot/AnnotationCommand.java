@@ -1,31 +1,44 @@
 package com.jazzkuh.commandlib.spigot;
 
 import com.jazzkuh.commandlib.common.*;
-import com.jazzkuh.commandlib.common.annotations.Main;
-import com.jazzkuh.commandlib.common.annotations.Subcommand;
+import com.jazzkuh.commandlib.common.completion.SubcommandSuggester;
 import com.jazzkuh.commandlib.common.exception.*;
+import com.jazzkuh.commandlib.common.help.HelpIndex;
+import com.jazzkuh.commandlib.common.metrics.CommandMetrics;
+import com.jazzkuh.commandlib.common.metrics.CommandPhase;
+import com.jazzkuh.commandlib.common.metrics.Metrics;
+import com.jazzkuh.commandlib.common.metrics.StartupPhase;
+import com.jazzkuh.commandlib.common.metrics.StartupProfiler;
+import com.jazzkuh.commandlib.common.permission.CommandVisibility;
+import com.jazzkuh.commandlib.common.ratelimit.RateLimits;
+import com.jazzkuh.commandlib.common.registry.DispatchSlot;
+import com.jazzkuh.commandlib.common.tokenizer.ArgumentTokenizer;
+import com.jazzkuh.commandlib.common.tokenizer.ArgumentTokens;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.TextColor;
-import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandMap;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.LinkedHashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 public class AnnotationCommand extends Command implements AnnotationCommandImpl {
 
     protected final String commandName;
     protected final List<AnnotationSubCommand> mainCommands = new ArrayList<>();
     protected final List<AnnotationSubCommand> subCommands = new ArrayList<>();
+    protected SubcommandSuggester subcommandSuggester;
+    protected CommandVisibility visibility;
+    protected SenderOverloads overloads;
+    private CompletionTree completionTree;
+    private volatile DispatchSlot<AnnotationCommand> slot;
 
     public AnnotationCommand(String commandName) {
         super(commandName);
@@ -47,11 +60,21 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
     }
 
     private void init() {
-        List<Method> mainCommandMethods = Arrays.stream(this.getClass().getMethods()).filter(method -> method.isAnnotationPresent(Main.class)).toList();
-        mainCommandMethods.forEach(method -> this.mainCommands.add(AnnotationCommandParser.parse(this, method)));
+        AnnotationCommandParser.parse(this, this.mainCommands, this.subCommands);
+        long start = StartupProfiler.start();
+        this.reindex();
+        StartupProfiler.stop(this.getClass(), StartupPhase.BINDING, start);
+    }
 
-        List<Method> subcommandMethods = Arrays.stream(this.getClass().getMethods()).filter(method -> method.isAnnotationPresent(Subcommand.class)).toList();
-        subcommandMethods.forEach(method -> this.subCommands.add(AnnotationCommandParser.parse(this, method)));
+    /**
+     * Rebuilds the suggester, visibility masks, sender variants and completion tree from the current main and
+     * subcommands. Subclasses that add subcommands after construction must call this before the command is used.
+     */
+    protected void reindex() {
+        this.subcommandSuggester = new SubcommandSuggester(this.subCommands);
+        this.visibility = new CommandVisibility(this.mainCommands, this.subCommands);
+        this.overloads = new SenderOverloads(this.mainCommands, this.subCommands);
+        this.completionTree = new CompletionTree(this);
     }
 
     @Override
@@ -59,16 +82,36 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
         return this.commandName;
     }
 
+    @Override
+    public long getSenderKey(Object sender) {
+        return sender instanceof Player player ? RateLimits.key(player.getUniqueId()) : RateLimits.EXEMPT;
+    }
+
+    @Override
+    public String getSenderName(Object sender) {
+        return sender instanceof CommandSender commandSender ? commandSender.getName() : String.valueOf(sender);
+    }
+
+    @Override
+    public boolean hasBypass(Object sender, String permission) {
+        return sender instanceof CommandSender commandSender && commandSender.hasPermission(permission);
+    }
+
     @Override
     public boolean execute(@NotNull CommandSender sender, @NotNull String label, @NotNull String[] args) {
+        AnnotationCommand current = this.current();
+        if (current != this) return current.execute(sender, label, args);
+
+        ArgumentTokens tokens = ArgumentTokenizer.retokenizeTokens(args);
+        if (tokens != null) args = tokens.toArray();
         if (args.length < 1) {
             if (this.mainCommands.isEmpty()) {
                 this.formatUsage(sender);
                 return true;
             }
 
-            if (this.mainCommands.size() == 1) {
-                this.executeCommand(this.mainCommands.get(0), sender, args);
+            if (this.overloads.getMain() != null) {
+                this.executeCommand(this.overloads.getMain(), sender, args, tokens, 0);
                 return true;
             }
 
@@ -88,27 +131,50 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
 
         if (match != null) {
             String[] effectiveArgs = matchLength > 1 ? collapse(args, matchLength, match.getName()) : args;
-            this.executeCommand(match, sender, effectiveArgs);
+            this.executeCommand(match, sender, effectiveArgs, tokens, matchLength - 1);
             return true;
         }
 
-        if (!this.mainCommands.isEmpty()) {
-            if (this.mainCommands.size() == 1) {
-                this.executeCommand(this.mainCommands.get(0), sender, args);
-                return true;
-            }
-
-            this.formatUsage(sender);
+        if (this.overloads.getMain() != null) {
+            this.executeCommand(this.overloads.getMain(), sender, args, tokens, 0);
             return true;
         }
 
+        if (this.suggestSubcommands(sender, args[0])) return true;
         this.formatUsage(sender);
         return true;
     }
 
-    private void executeCommand(AnnotationSubCommand subCommand, CommandSender sender, String[] args) {
-        if (subCommand.getPermission() != null && !sender.hasPermission(subCommand.getPermission())) {
+    private boolean suggestSubcommands(CommandSender sender, String input) {
+        long[] visible = this.visible(sender);
+        List<String> suggestions = this.subcommandSuggester.suggest(input, subCommand -> this.visibility.isVisible(visible, subCommand));
+        if (suggestions.isEmpty()) return false;
+
+        sender.sendMessage(SpigotCommandLoader.getFormattingProvider().formatSuggestions(this.getCommandName(), suggestions));
+        return true;
+    }
+
+    long[] visible(CommandSender sender) {
+        return this.visibility.resolve(this.getSenderKey(sender), sender::hasPermission);
+    }
+
+    private void executeCommand(AnnotationSubCommand subCommand, CommandSender sender, String[] args, @Nullable ArgumentTokens tokens, int offset) {
+        AnnotationSubCommand selected = this.overloads.select(subCommand, sender);
+        CommandMetrics metrics = Metrics.getCommandMetrics();
+        long start = System.nanoTime();
+        if (selected == null) {
+            SenderException senderException = new SenderException();
+            metrics.recordOutcome(this.getCommandName(), subCommand.getName(), senderException, System.nanoTime() - start);
+            sender.sendMessage(SpigotCommandLoader.getFormattingProvider().formatError(senderException, senderException.getMessage()));
+            return;
+        }
+        subCommand = selected;
+
+        boolean permitted = subCommand.getPermission() == null || sender.hasPermission(subCommand.getPermission());
+        metrics.recordPhase(this.getCommandName(), subCommand.getName(), CommandPhase.PERMISSION, System.nanoTime() - start);
+        if (!permitted) {
             PermissionException permissionException = new PermissionException("You do not have permission to use this command.");
+            metrics.recordOutcome(this.getCommandName(), subCommand.getName(), permissionException, System.nanoTime() - start);
             sender.sendMessage(SpigotCommandLoader.getFormattingProvider().formatError(permissionException, permissionException.getMessage()));
             return;
         }
@@ -117,16 +183,22 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
         AnnotationCommandSender<CommandSender> commandSender = new AnnotationCommandSender<>(sender);
 
         try {
-            commandExecutor.execute(commandSender, args);
+            commandExecutor.execute(commandSender, args, tokens, offset);
+            metrics.recordOutcome(this.getCommandName(), subCommand.getName(), null, System.nanoTime() - start);
         } catch (CommandException commandException) {
+            metrics.recordOutcome(this.getCommandName(), subCommand.getName(), commandException, System.nanoTime() - start);
             if (commandException instanceof ArgumentException) {
                 this.formatUsage(sender);
             } else if (commandException instanceof PermissionException permissionException) {
                 sender.sendMessage(SpigotCommandLoader.getFormattingProvider().formatError(commandException, permissionException.getMessage()));
+            } else if (commandException instanceof SenderException senderException) {
+                sender.sendMessage(SpigotCommandLoader.getFormattingProvider().formatError(commandException, senderException.getMessage()));
             } else if (commandException instanceof ContextResolverException contextResolverException) {
                 sender.sendMessage(SpigotCommandLoader.getFormattingProvider().formatError(commandException, "A context resolver was not found for: " + contextResolverException.getMessage()));
             } else if (commandException instanceof ParameterException parameterException) {
                 sender.sendMessage(SpigotCommandLoader.getFormattingProvider().formatError(commandException, parameterException.getMessage()));
+            } else if (commandException instanceof CooldownException cooldownException) {
+                sender.sendMessage(SpigotCommandLoader.getFormattingProvider().formatCooldown(cooldownException));
             } else if (commandException instanceof ErrorException errorException) {
                 sender.sendMessage(SpigotCommandLoader.getFormattingProvider().formatError(commandException, "An error occurred while executing this subcommand: " + errorException.getMessage()));
             }
@@ -136,40 +208,16 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
     @Override
     @NotNull
     public List<String> tabComplete(@NotNull CommandSender sender, @NotNull String alias, @NotNull String[] args) {
-        Set<String> options = new LinkedHashSet<>();
-        AnnotationCommandSender<CommandSender> commandSender = new AnnotationCommandSender<>(sender);
-
-        for (AnnotationSubCommand mainCommand : this.mainCommands) {
-            if (mainCommand.getPermission() == null || sender.hasPermission(mainCommand.getPermission())) {
-                AnnotationCommandExecutor<CommandSender> mainCommandExecutor = new AnnotationCommandExecutor<>(mainCommand, this);
-                options.addAll(mainCommandExecutor.complete(commandSender, args));
-            }
-        }
-
-        int index = args.length - 1;
-        if (index < 0) return new ArrayList<>(options);
-        String partial = args[index];
-
-        for (AnnotationSubCommand subCommand : this.subCommands) {
-            if (subCommand.getPermission() != null && !sender.hasPermission(subCommand.getPermission())) continue;
-            String[] name = nameTokens(subCommand);
-
-            if (name.length <= index && prefixMatches(args, name, name.length)) {
-                String[] effectiveArgs = name.length > 1 ? collapse(args, name.length, subCommand.getName()) : args;
-                AnnotationCommandExecutor<CommandSender> subCommandExecutor = new AnnotationCommandExecutor<>(subCommand, this);
-                options.addAll(subCommandExecutor.complete(commandSender, effectiveArgs));
-            } else if (name.length > index && prefixMatches(args, name, index)
-                    && startsWithIgnoreCase(name[index], partial)) {
-                options.add(name[index]);
-            }
-
-            if (index == 0) {
-                for (String subAlias : subCommand.getAliases()) {
-                    if (startsWithIgnoreCase(subAlias, partial)) options.add(subAlias);
-                }
-            }
-        }
-        return new ArrayList<>(options);
+        AnnotationCommand current = this.current();
+        if (current != this) return current.tabComplete(sender, alias, args);
+
+        long start = System.nanoTime();
+        String arguments = String.join(" ", args);
+        String[] tokens = ArgumentTokenizer.retokenizePartial(args);
+        String input = this.commandName + " " + arguments;
+        List<String> completions = SpigotCommandLoader.getCompletionCoalescer().completeNow(this.getSenderKey(sender), input, () -> ArgumentTokenizer.fitCompletions(arguments, this.completionTree.complete(sender, tokens)));
+        Metrics.getCommandMetrics().recordCompletion(this.getCommandName(), System.nanoTime() - start);
+        return completions;
     }
 
     private static String[] nameTokens(AnnotationSubCommand subCommand) {
@@ -184,50 +232,31 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
         return true;
     }
 
-    private static int matchLength(AnnotationSubCommand subCommand, String[] args) {
+    static int matchLength(AnnotationSubCommand subCommand, String[] args) {
         String[] name = nameTokens(subCommand);
         if (name.length <= args.length && prefixMatches(args, name, name.length)) return name.length;
         if (args.length >= 1 && subCommand.getAliases().contains(args[0].toLowerCase())) return 1;
         return 0;
     }
 
-    private static String[] collapse(String[] args, int count, String name) {
+    static String[] collapse(String[] args, int count, String name) {
         String[] collapsed = new String[args.length - count + 1];
         collapsed[0] = name;
         System.arraycopy(args, count, collapsed, 1, args.length - count);
         return collapsed;
     }
 
-    private static boolean startsWithIgnoreCase(String value, String prefix) {
-        return value.length() >= prefix.length() && value.regionMatches(true, 0, prefix, 0, prefix.length());
-    }
-
     public void register(JavaPlugin plugin) {
         try {
-            List<String> allAliases = new ArrayList<>();
-            for (AnnotationSubCommand mainCommand : this.mainCommands) {
-                allAliases.addAll(mainCommand.getAliases());
-            }
-            this.setAliases(allAliases);
-
-            boolean allMainCommandsHavePermissions = !this.mainCommands.isEmpty() &&
-                    this.mainCommands.stream().allMatch(cmd -> cmd.getPermission() != null);
-
-            if (allMainCommandsHavePermissions) {
-                this.setPermission(this.mainCommands.get(0).getPermission());
-                this.permissionMessage(Component.text("You do not have permission to use this command.", TextColor.fromHexString("#FB465C")));
-            }
-
-            Field bukkitCommandMap = Bukkit.getServer().getClass().getDeclaredField("commandMap");
-            bukkitCommandMap.setAccessible(true);
-
-            CommandMap commandMap = (CommandMap) bukkitCommandMap.get(Bukkit.getServer());
-            commandMap.register(plugin.getName(), this);
+            long start = StartupProfiler.start();
+            this.prepareRegistration();
+            SpigotCommandLoader.getCommandMap().register(plugin.getName(), this);
+            StartupProfiler.stop(this.getClass(), StartupPhase.REGISTRATION, start);
 
             if (SpigotCommandLoader.isDebug()) {
                 plugin.getLogger().info("Registered command: " + this.getCommandName());
-                if (!allAliases.isEmpty()) {
-                    plugin.getLogger().info("- Registered aliases: " + String.join(", ", allAliases));
+                if (!this.getAliases().isEmpty()) {
+                    plugin.getLogger().info("- Registered aliases: " + String.join(", ", this.getAliases()));
                 }
             }
         } catch (Exception exception) {
@@ -235,18 +264,108 @@ public class AnnotationCommand extends Command implements AnnotationCommandImpl
         }
     }
 
+    /**
+     * Removes this command and its aliases from the command map.
+     */
+    public void unregister(JavaPlugin plugin) {
+        try {
+            CommandMap commandMap = SpigotCommandLoader.getCommandMap();
+            commandMap.getKnownCommands().values().removeIf(command -> command == this);
+            this.unregister(commandMap);
+            HelpIndex.global().remove(this);
+            SpigotCommandLoader.resyncCommands();
+
+            if (SpigotCommandLoader.isDebug()) plugin.getLogger().info("Unregistered command: " + this.getCommandName());
+        } catch (Exception exception) {
+            plugin.getLogger().severe("Unable to unregister command: " + this.getCommandName());
+        }
+    }
+
+    /**
+     * Hands this registration to another command, for example a new instance after a module reload. The label and
+     * aliases of this command are removed from the command map and the replacement is registered under its own, with
+     * the same fallback prefix. Executions and completions that still reach this command are handed to the
+     * replacement through a shared {@link DispatchSlot}, so the dispatch path takes no locks.
+     */
+    public void replace(AnnotationCommand replacement) {
+        if (replacement == this) throw new IllegalArgumentException("A command cannot replace itself");
+
+        CommandMap commandMap;
+        try {
+            commandMap = SpigotCommandLoader.getCommandMap();
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("Unable to access the command map", exception);
+        }
+
+        String fallbackPrefix = null;
+        for (Iterator<Map.Entry<String, Command>> iterator = commandMap.getKnownCommands().entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, Command> entry = iterator.next();
+            if (entry.getValue() != this) continue;
+
+            int separator = entry.getKey().indexOf(':');
+            if (separator > 0) fallbackPrefix = entry.getKey().substring(0, separator);
+            iterator.remove();
+        }
+        this.unregister(commandMap);
+
+        replacement.prepareRegistration();
+        this.publish(replacement);
+        HelpIndex.global().remove(this);
+        if (fallbackPrefix != null) commandMap.register(fallbackPrefix, replacement);
+        SpigotCommandLoader.resyncCommands();
+    }
+
+    /**
+     * @return the command that handles this registration, which is this command unless it was replaced
+     */
+    public AnnotationCommand current() {
+        DispatchSlot<AnnotationCommand> slot = this.slot;
+        return slot == null ? this : slot.get();
+    }
+
+    /**
+     * Shares the dispatch slot of this command with the replacement and points it there.
+     */
+    private void publish(AnnotationCommand replacement) {
+        DispatchSlot<AnnotationCommand> slot = this.slot != null ? this.slot : new DispatchSlot<>(this);
+        this.slot = slot;
+        replacement.slot = slot;
+        slot.set(replacement);
+    }
+
+    void prepareRegistration() {
+        HelpIndex.global().add(this, this.mainCommands, this.subCommands);
+
+        List<String> allAliases = new ArrayList<>();
+        for (AnnotationSubCommand mainCommand : this.mainCommands) {
+            allAliases.addAll(mainCommand.getAliases());
+        }
+        this.setAliases(allAliases);
+
+        boolean allMainCommandsHavePermissions = !this.mainCommands.isEmpty() &&
+                this.mainCommands.stream().allMatch(cmd -> cmd.getPermission() != null);
+
+        if (allMainCommandsHavePermissions) {
+            this.setPermission(this.mainCommands.get(0).getPermission());
+            this.permissionMessage(Component.text("You do not have permission to use this command.", TextColor.fromHexString("#FB465C")));
+        }
+    }
+
     protected void formatUsage(CommandSender sender) {
         List<String> usageMessages = new ArrayList<>();
+        long[] visible = this.visible(sender);
 
         for (AnnotationSubCommand mainCommand : this.mainCommands) {
-            if (mainCommand.getPermission() == null || sender.hasPermission(mainCommand.getPermission())) {
+            if (this.overloads.select(mainCommand, sender) != mainCommand) continue;
+            if (this.visibility.isVisible(visible, mainCommand)) {
                 String usage = "/" + this.getCommandName() + mainCommand.getUsage() + " - " + mainCommand.getDescription();
                 usageMessages.add(usage);
             }
         }
 
         for (AnnotationSubCommand subCommand : this.subCommands) {
-            if (subCommand.getPermission() == null || sender.hasPermission(subCommand.getPermission())) {
+            if (this.overloads.select(subCommand, sender) != subCommand) continue;
+            if (this.visibility.isVisible(visible, subCommand)) {
                 String usage = "/" + this.getCommandName() + " " + subCommand.getName() + subCommand.getUsage() + " - " + subCommand.getDescription();
                 usageMessages.add(usage);
             }
@@ -0,0 +1,52 @@
+package com.jazzkuh.commandlib.spigot;
+
+import com.destroystokyo.paper.brigadier.BukkitBrigadierCommand;
+import com.destroystokyo.paper.brigadier.BukkitBrigadierCommandSource;
+import com.jazzkuh.commandlib.common.brigadier.BrigadierTree;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import org.bukkit.command.CommandSender;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The Brigadier tree of an {@link AnnotationCommand} for Paper. Every node executes and completes through the
+ * Bukkit command that Paper wraps, so the legacy path handles the input.
+ */
+final class BrigadierCommandTree extends BrigadierTree<BukkitBrigadierCommandSource> {
+    private final AnnotationCommand command;
+    private final BukkitBrigadierCommand<BukkitBrigadierCommandSource> brigadierCommand;
+
+    BrigadierCommandTree(AnnotationCommand command, BukkitBrigadierCommand<BukkitBrigadierCommandSource> brigadierCommand) {
+        super(command.mainCommands, command.subCommands, command.visibility, command.overloads);
+        this.command = command;
+        this.brigadierCommand = brigadierCommand;
+    }
+
+    @Override
+    protected int execute(CommandContext<BukkitBrigadierCommandSource> context) throws CommandSyntaxException {
+        return this.brigadierCommand.run(context);
+    }
+
+    @Override
+    protected CompletableFuture<Suggestions> suggest(CommandContext<BukkitBrigadierCommandSource> context, SuggestionsBuilder builder) throws CommandSyntaxException {
+        return this.brigadierCommand.getSuggestions(context, builder);
+    }
+
+    @Override
+    protected boolean hasPermission(BukkitBrigadierCommandSource source) {
+        return this.command.testPermissionSilent(source.getBukkitSender());
+    }
+
+    @Override
+    protected CommandSender sender(BukkitBrigadierCommandSource source) {
+        return source.getBukkitSender();
+    }
+
+    @Override
+    protected long[] visible(BukkitBrigadierCommandSource source) {
+        return this.command.visible(source.getBukkitSender());
+    }
+}
@@ -0,0 +1,132 @@
+package com.jazzkuh.commandlib.spigot;
+
+import com.jazzkuh.commandlib.common.AnnotationCommandExecutor;
+import com.jazzkuh.commandlib.common.AnnotationCommandSender;
+import com.jazzkuh.commandlib.common.AnnotationSubCommand;
+import com.jazzkuh.commandlib.common.permission.CommandVisibility;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The subcommand names of an {@link AnnotationCommand} as a tree of words, built once at registration. The nodes that
+ * end a subcommand name hold its executor, and every node holds a mask of the subcommands below it that is tested
+ * against the visibility bitset of the sender. Completion follows the typed words down a single path, so its cost
+ * depends on the input length rather than on the number of subcommands.
+ */
+final class CompletionTree {
+    private final AnnotationCommand command;
+    private final List<Completer> mainCommands = new ArrayList<>();
+    private final Node root = new Node(null);
+
+    CompletionTree(AnnotationCommand command) {
+        this.command = command;
+        for (AnnotationSubCommand mainCommand : command.mainCommands) {
+            this.mainCommands.add(new Completer(mainCommand, new AnnotationCommandExecutor<>(mainCommand, command)));
+        }
+
+        for (AnnotationSubCommand subCommand : command.subCommands) {
+            Completer completer = new Completer(subCommand, new AnnotationCommandExecutor<>(subCommand, command));
+            this.insert(subCommand.getName().trim().split("\\s+"), completer);
+
+            for (String alias : subCommand.getAliases()) {
+                this.insert(new String[]{alias}, completer);
+            }
+        }
+
+        this.root.seal(command.visibility);
+    }
+
+    private void insert(String[] words, Completer completer) {
+        Node node = this.root;
+        for (String word : words) {
+            node = node.child(word);
+            node.subCommands.add(completer.subCommand());
+        }
+        node.completers.add(completer);
+    }
+
+    List<String> complete(CommandSender sender, String[] args) {
+        Set<String> options = new LinkedHashSet<>();
+        AnnotationCommandSender<CommandSender> commandSender = new AnnotationCommandSender<>(sender);
+        CommandVisibility visibility = this.command.visibility;
+        long[] visible = this.command.visible(sender);
+
+        for (Completer completer : this.mainCommands) {
+            if (visibility.isVisible(visible, completer.subCommand())) options.addAll(completer.executor().complete(commandSender, args));
+        }
+
+        int index = args.length - 1;
+        if (index < 0) return new ArrayList<>(options);
+
+        Node node = this.root;
+        for (int depth = 0; ; depth++) {
+            if (depth > 0) {
+                String[] effectiveArgs = null;
+                for (Completer completer : node.completers) {
+                    if (!visibility.isVisible(visible, completer.subCommand())) continue;
+                    if (effectiveArgs == null) effectiveArgs = depth > 1 ? AnnotationCommand.collapse(args, depth, completer.subCommand().getName()) : args;
+                    options.addAll(completer.executor().complete(commandSender, effectiveArgs));
+                }
+            }
+
+            if (depth == index) {
+                String partial = args[index];
+                for (Node child : node.ordered) {
+                    if (child.permits(visible) && child.word.regionMatches(true, 0, partial, 0, partial.length())) options.add(child.word);
+                }
+                break;
+            }
+
+            node = node.children.get(args[depth].toLowerCase());
+            if (node == null || !node.permits(visible)) break;
+        }
+
+        return new ArrayList<>(options);
+    }
+
+    private record Completer(AnnotationSubCommand subCommand, AnnotationCommandExecutor<CommandSender> executor) {
+    }
+
+    private static final class Node {
+        private final String word;
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<Node> ordered = new ArrayList<>();
+        private final List<Completer> completers = new ArrayList<>();
+        private final List<AnnotationSubCommand> subCommands = new ArrayList<>();
+        private long[] mask;
+
+        private Node(String word) {
+            this.word = word;
+        }
+
+        private Node child(String word) {
+            Node child = this.children.get(word.toLowerCase());
+            if (child == null) {
+                child = new Node(word);
+                this.children.put(word.toLowerCase(), child);
+                this.ordered.add(child);
+            }
+            return child;
+        }
+
+        private void seal(CommandVisibility visibility) {
+            this.mask = visibility.mask(this.subCommands);
+            for (Node child : this.ordered) {
+                child.seal(visibility);
+            }
+        }
+
+        /**
+         * A node is visible if the sender may use at least one of the subcommands below it.
+         */
+        private boolean permits(long[] visible) {
+            return CommandVisibility.intersects(visible, this.mask);
+        }
+    }
+}
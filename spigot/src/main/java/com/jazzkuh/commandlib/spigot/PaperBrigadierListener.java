@@ -0,0 +1,16 @@
+package com.jazzkuh.commandlib.spigot;
+
+import com.destroystokyo.paper.brigadier.BukkitBrigadierCommandSource;
+import com.destroystokyo.paper.event.brigadier.CommandRegisteredEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+
+final class PaperBrigadierListener implements Listener {
+    @EventHandler
+    public void onCommandRegistered(CommandRegisteredEvent<BukkitBrigadierCommandSource> event) {
+        if (!(event.getCommand() instanceof AnnotationCommand command)) return;
+
+        event.setLiteral(new BrigadierCommandTree(command.current(), event.getBrigadierCommand()).build(event.getCommandLabel()));
+        event.setRawCommand(true);
+    }
+}
@@ -0,0 +1,23 @@
+package com.jazzkuh.commandlib.spigot;
+
+import com.jazzkuh.commandlib.common.permission.CommandVisibility;
+import com.jazzkuh.commandlib.common.ratelimit.RateLimits;
+import com.jazzkuh.commandlib.common.resolvers.Resolvers;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+final class ResolverCacheListener implements Listener {
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        Resolvers.invalidate(event.getPlayer());
+        CommandVisibility.forget(RateLimits.key(event.getPlayer().getUniqueId()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        Resolvers.invalidate(event.getWorld());
+    }
+}
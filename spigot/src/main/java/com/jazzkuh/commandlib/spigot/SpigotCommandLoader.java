@@ -1,15 +1,35 @@
 package com.jazzkuh.commandlib.spigot;
 
 import com.jazzkuh.commandlib.common.chat.FormattingProvider;
+import com.jazzkuh.commandlib.common.completion.CompletionCoalescer;
+import com.jazzkuh.commandlib.common.metrics.StartupPhase;
+import com.jazzkuh.commandlib.common.metrics.StartupProfiler;
+import com.jazzkuh.commandlib.common.permission.CommandVisibility;
+import com.jazzkuh.commandlib.common.ratelimit.RateLimits;
+import com.jazzkuh.commandlib.common.registry.CommandIndex;
+import com.jazzkuh.commandlib.common.registry.CommandRegistry;
+import com.jazzkuh.commandlib.common.registry.MetadataCache;
+import com.jazzkuh.commandlib.common.resolvers.CachePolicy;
 import com.jazzkuh.commandlib.common.resolvers.Resolvers;
 import com.jazzkuh.commandlib.spigot.resolvers.GameModeResolver;
+import com.jazzkuh.commandlib.spigot.resolvers.OfflinePlayerResolver;
 import com.jazzkuh.commandlib.spigot.resolvers.PlayerResolver;
 import com.jazzkuh.commandlib.spigot.resolvers.WorldResolver;
 import lombok.Getter;
 import lombok.Setter;
+import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.World;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandMap;
 import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 public class SpigotCommandLoader {
     @Getter
@@ -20,9 +40,122 @@ public class SpigotCommandLoader {
     @Setter
     private static boolean debug = true;
 
+    @Getter
+    @Setter
+    private static CompletionCoalescer completionCoalescer = new CompletionCoalescer();
+
+    private static volatile CommandMap commandMap;
+
     public static void loadResolvers() {
         Resolvers.register(Player.class, new PlayerResolver());
         Resolvers.register(GameMode.class, new GameModeResolver());
         Resolvers.register(World.class, new WorldResolver());
     }
+
+    /**
+     * Same as {@link #loadResolvers()}, with worlds resolved through a cache that is evicted on unload, and also
+     * registers an {@link OfflinePlayerResolver} that is seeded and kept up to date through the given plugin.
+     */
+    public static void loadResolvers(JavaPlugin plugin) {
+        loadResolvers();
+        Resolvers.registerCached(World.class, new WorldResolver(), CachePolicy.bounded(256).withWeakValues());
+        Bukkit.getPluginManager().registerEvents(new ResolverCacheListener(), plugin);
+
+        OfflinePlayerResolver offlinePlayerResolver = new OfflinePlayerResolver(plugin);
+        offlinePlayerResolver.enable();
+        Resolvers.register(OfflinePlayer.class, offlinePlayerResolver, "offlineplayers");
+    }
+
+    /**
+     * Registers every {@link AnnotationCommand} as a typed Brigadier tree instead of a greedy string, so that Paper
+     * clients parse and complete static parts locally. Has no effect on servers that do not ship Paper's Brigadier API.
+     *
+     * @return whether Brigadier registration was enabled
+     */
+    public static boolean enableBrigadier(JavaPlugin plugin) {
+        try {
+            Class.forName("com.destroystokyo.paper.event.brigadier.CommandRegisteredEvent");
+        } catch (ClassNotFoundException exception) {
+            if (debug) plugin.getLogger().info("Brigadier registration requires Paper, falling back to Bukkit commands.");
+            return false;
+        }
+
+        Bukkit.getPluginManager().registerEvents(new PaperBrigadierListener(), plugin);
+        return true;
+    }
+
+    public static CommandMap getCommandMap() throws ReflectiveOperationException {
+        CommandMap map = commandMap;
+        if (map == null) {
+            Field bukkitCommandMap = Bukkit.getServer().getClass().getDeclaredField("commandMap");
+            bukkitCommandMap.setAccessible(true);
+            map = (CommandMap) bukkitCommandMap.get(Bukkit.getServer());
+            commandMap = map;
+        }
+
+        return map;
+    }
+
+    public static List<AnnotationCommand> registerAll(JavaPlugin plugin) {
+        return registerClasses(plugin, CommandIndex.load(plugin.getClass().getClassLoader()));
+    }
+
+    public static List<AnnotationCommand> registerAll(JavaPlugin plugin, String packageName) {
+        return registerClasses(plugin, CommandIndex.scan(plugin.getClass().getClassLoader(), packageName));
+    }
+
+    private static List<AnnotationCommand> registerClasses(JavaPlugin plugin, List<Class<?>> commandClasses) {
+        List<AnnotationCommand> commands = CommandRegistry.instantiate(commandClasses, AnnotationCommand.class);
+        registerAll(plugin, commands);
+        return commands;
+    }
+
+    public static void registerAll(JavaPlugin plugin, Collection<? extends AnnotationCommand> commands) {
+        try {
+            List<Command> prepared = new ArrayList<>(commands.size());
+            for (AnnotationCommand command : commands) {
+                long start = StartupProfiler.start();
+                command.prepareRegistration();
+                StartupProfiler.stop(command.getClass(), StartupPhase.REGISTRATION, start);
+                prepared.add(command);
+            }
+
+            getCommandMap().registerAll(plugin.getName(), prepared);
+            syncCommands();
+            MetadataCache.flush();
+
+            if (StartupProfiler.isEnabled()) StartupProfiler.report().format().forEach(plugin.getLogger()::info);
+
+            if (debug) plugin.getLogger().info("Registered " + prepared.size() + " commands.");
+        } catch (Exception exception) {
+            plugin.getLogger().severe("Unable to register " + commands.size() + " commands: " + exception.getMessage());
+        }
+    }
+
+    private static void syncCommands() {
+        if (Bukkit.getOnlinePlayers().isEmpty()) return;
+        resyncCommands();
+    }
+
+    /**
+     * Rebuilds the command tree that is sent to clients, also while nobody is online so that players who join later
+     * receive the updated tree.
+     */
+    static void resyncCommands() {
+        CommandVisibility.invalidate();
+        try {
+            Bukkit.getServer().getClass().getMethod("syncCommands").invoke(Bukkit.getServer());
+        } catch (ReflectiveOperationException exception) {
+            Bukkit.getOnlinePlayers().forEach(Player::updateCommands);
+        }
+    }
+
+    /**
+     * Resends the command tree of a player whose permissions changed. The cached command visibility of the player
+     * is dropped first, so the tree reflects the new permissions right away.
+     */
+    public static void updateCommands(Player player) {
+        CommandVisibility.forget(RateLimits.key(player.getUniqueId()));
+        player.updateCommands();
+    }
 }
@@ -0,0 +1,198 @@
+package com.jazzkuh.commandlib.spigot.resolvers;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.jazzkuh.commandlib.common.AnnotationCommandSender;
+import com.jazzkuh.commandlib.common.resolvers.ArgumentResolver;
+import com.jazzkuh.commandlib.common.resolvers.CompletionResolver;
+import com.jazzkuh.commandlib.common.resolvers.ContextResolver;
+import com.jazzkuh.commandlib.common.resolvers.ResolutionContext;
+import com.jazzkuh.commandlib.common.resolvers.ResolveResult;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves players that may be offline without blocking the main thread. Known names are kept in a bounded LRU cache
+ * that is seeded from the server's {@code usercache.json} and from join events, and that also remembers names that do
+ * not exist for a few minutes.
+ * <p>
+ * A name that is not cached is looked up on an asynchronous task when it is resolved on the main thread, and the
+ * argument fails with a message to try again until that lookup finished. Off the main thread the lookup happens
+ * directly. On Paper, the server's own profile cache is consulted before looking a name up; other servers skip it.
+ * <p>
+ * Completions are every known name that starts with the partial input. They are not capped, as the completion
+ * coalescer filters them again as the input is extended; the cache capacity bounds them instead.
+ */
+public final class OfflinePlayerResolver implements ContextResolver<OfflinePlayer>, ArgumentResolver<OfflinePlayer>, CompletionResolver<CommandSender>, Listener {
+    private static final long NEGATIVE_TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final boolean PROFILE_CACHE = hasProfileCache();
+
+    private final JavaPlugin plugin;
+    private final Map<String, Entry> cache;
+    private final NavigableMap<String, String> names = new TreeMap<>();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public OfflinePlayerResolver(JavaPlugin plugin) {
+        this(plugin, 4096);
+    }
+
+    public OfflinePlayerResolver(JavaPlugin plugin, int capacity) {
+        this.plugin = plugin;
+        this.cache = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (this.size() <= capacity) return false;
+                if (eldest.getValue().uuid() != null) OfflinePlayerResolver.this.names.remove(eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Registers the join listener and loads {@code usercache.json} on an asynchronous task.
+     */
+    public void enable() {
+        Bukkit.getPluginManager().registerEvents(this, this.plugin);
+        Bukkit.getScheduler().runTaskAsynchronously(this.plugin, this::loadUserCache);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        this.remember(event.getPlayer().getUniqueId(), event.getPlayer().getName());
+    }
+
+    @Override
+    public List<String> resolve(AnnotationCommandSender<CommandSender> sender, String arg) {
+        String prefix = arg.toLowerCase();
+        List<String> completions = new ArrayList<>();
+        synchronized (this.cache) {
+            for (String name : this.names.tailMap(prefix, true).values()) {
+                if (!name.regionMatches(true, 0, prefix, 0, prefix.length())) break;
+                completions.add(name);
+            }
+        }
+        return completions;
+    }
+
+    @Override
+    public OfflinePlayer resolve(String arg) {
+        return this.resolve(arg, ResolutionContext.detached()).getValue();
+    }
+
+    @Override
+    public ResolveResult<OfflinePlayer> resolve(CharSequence input, ResolutionContext<?> context) {
+        String arg = input.toString();
+        Player online = Bukkit.getPlayerExact(arg);
+        if (online != null) return ResolveResult.success(online);
+
+        String key = arg.toLowerCase();
+        Entry entry;
+        synchronized (this.cache) {
+            entry = this.cache.get(key);
+        }
+
+        if (entry != null) {
+            if (entry.uuid() != null) return ResolveResult.success(Bukkit.getOfflinePlayer(entry.uuid()));
+            if (System.nanoTime() < entry.expiresAt()) return ResolveResult.failure();
+        }
+
+        if (PROFILE_CACHE) {
+            OfflinePlayer cached = Bukkit.getOfflinePlayerIfCached(arg);
+            if (cached != null) {
+                this.remember(cached.getUniqueId(), cached.getName() == null ? arg : cached.getName());
+                return ResolveResult.success(cached);
+            }
+        }
+
+        if (!Bukkit.isPrimaryThread()) return ResolveResult.of(this.lookup(arg));
+
+        if (this.pending.add(key)) {
+            Bukkit.getScheduler().runTaskAsynchronously(this.plugin, () -> {
+                try {
+                    this.lookup(arg);
+                } finally {
+                    this.pending.remove(key);
+                }
+            });
+        }
+        return ResolveResult.failure("Looking up " + arg + ", try again");
+    }
+
+    @SuppressWarnings("deprecation")
+    private OfflinePlayer lookup(String name) {
+        OfflinePlayer player = Bukkit.getOfflinePlayer(name);
+        if (player.hasPlayedBefore() || player.isOnline()) {
+            this.remember(player.getUniqueId(), player.getName() == null ? name : player.getName());
+            return player;
+        }
+
+        String key = name.toLowerCase();
+        synchronized (this.cache) {
+            this.cache.put(key, new Entry(null, System.nanoTime() + NEGATIVE_TTL_NANOS));
+            this.names.remove(key);
+        }
+        return null;
+    }
+
+    private void remember(UUID uuid, String name) {
+        String key = name.toLowerCase();
+        synchronized (this.cache) {
+            this.cache.put(key, new Entry(uuid, 0));
+            this.names.put(key, name);
+        }
+    }
+
+    private void loadUserCache() {
+        Path path = Path.of("usercache.json");
+        if (!Files.isRegularFile(path)) return;
+
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            for (JsonElement element : JsonParser.parseReader(reader).getAsJsonArray()) {
+                JsonObject profile = element.getAsJsonObject();
+                if (!profile.has("name") || !profile.has("uuid")) continue;
+                this.remember(UUID.fromString(profile.get("uuid").getAsString()), profile.get("name").getAsString());
+            }
+        } catch (IOException | RuntimeException exception) {
+            this.plugin.getLogger().warning("Unable to read usercache.json: " + exception.getMessage());
+        }
+    }
+
+    /**
+     * @return whether the server has Paper's {@code Bukkit#getOfflinePlayerIfCached}
+     */
+    private static boolean hasProfileCache() {
+        try {
+            Bukkit.class.getMethod("getOfflinePlayerIfCached", String.class);
+            return true;
+        } catch (NoSuchMethodException exception) {
+            return false;
+        }
+    }
+
+    private record Entry(UUID uuid, long expiresAt) {
+    }
+}
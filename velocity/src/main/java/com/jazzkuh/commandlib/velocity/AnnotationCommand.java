@@ -1,25 +1,45 @@
 package com.jazzkuh.commandlib.velocity;
 
 import com.jazzkuh.commandlib.common.*;
-import com.jazzkuh.commandlib.common.annotations.Main;
-import com.jazzkuh.commandlib.common.annotations.Subcommand;
+import com.jazzkuh.commandlib.common.completion.SubcommandSuggester;
 import com.jazzkuh.commandlib.common.exception.*;
+import com.jazzkuh.commandlib.common.help.HelpIndex;
+import com.jazzkuh.commandlib.common.metrics.CommandMetrics;
+import com.jazzkuh.commandlib.common.metrics.CommandPhase;
+import com.jazzkuh.commandlib.common.metrics.Metrics;
+import com.jazzkuh.commandlib.common.metrics.StartupPhase;
+import com.jazzkuh.commandlib.common.metrics.StartupProfiler;
+import com.jazzkuh.commandlib.common.permission.CommandVisibility;
+import com.jazzkuh.commandlib.common.ratelimit.RateLimits;
+import com.jazzkuh.commandlib.common.registry.DispatchSlot;
+import com.jazzkuh.commandlib.common.tokenizer.ArgumentTokenizer;
+import com.jazzkuh.commandlib.common.tokenizer.ArgumentTokens;
 import com.jazzkuh.commandlib.velocity.utils.StringUtils;
+import com.velocitypowered.api.command.BrigadierCommand;
 import com.velocitypowered.api.command.CommandManager;
+import com.velocitypowered.api.command.CommandMeta;
 import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.command.SimpleCommand;
+import com.velocitypowered.api.proxy.Player;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.TextColor;
+import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class AnnotationCommand implements AnnotationCommandImpl, SimpleCommand {
     protected final String commandName;
     protected final List<AnnotationSubCommand> mainCommands = new ArrayList<>();
     protected final List<AnnotationSubCommand> subCommands = new ArrayList<>();
+    protected final SubcommandSuggester subcommandSuggester;
+    protected final CommandVisibility visibility;
+    protected final SenderOverloads overloads;
+    private volatile DispatchSlot<AnnotationCommand> slot;
+    private CommandManager commandManager;
+    private CommandMeta meta;
+    private boolean brigadier;
 
     public AnnotationCommand() {
         if (!this.getClass().isAnnotationPresent(com.jazzkuh.commandlib.common.annotations.Command.class)) {
@@ -28,11 +48,12 @@ public class AnnotationCommand implements AnnotationCommandImpl, SimpleCommand {
 
         this.commandName = this.getClass().getAnnotation(com.jazzkuh.commandlib.common.annotations.Command.class).value();
 
-        List<Method> mainCommandMethods = Arrays.stream(this.getClass().getMethods()).filter(method -> method.isAnnotationPresent(Main.class)).toList();
-        mainCommandMethods.forEach(method -> this.mainCommands.add(AnnotationCommandParser.parse(this, method)));
-
-        List<Method> subcommandMethods = Arrays.stream(this.getClass().getMethods()).filter(method -> method.isAnnotationPresent(Subcommand.class)).toList();
-        subcommandMethods.forEach(method -> this.subCommands.add(AnnotationCommandParser.parse(this, method)));
+        AnnotationCommandParser.parse(this, this.mainCommands, this.subCommands);
+        long start = StartupProfiler.start();
+        this.subcommandSuggester = new SubcommandSuggester(this.subCommands);
+        this.visibility = new CommandVisibility(this.mainCommands, this.subCommands);
+        this.overloads = new SenderOverloads(this.mainCommands, this.subCommands);
+        StartupProfiler.stop(this.getClass(), StartupPhase.BINDING, start);
     }
 
     @Override
@@ -40,10 +61,36 @@ public class AnnotationCommand implements AnnotationCommandImpl, SimpleCommand {
         return this.commandName;
     }
 
+    @Override
+    public long getSenderKey(Object sender) {
+        return sender instanceof Player player ? RateLimits.key(player.getUniqueId()) : RateLimits.EXEMPT;
+    }
+
+    @Override
+    public String getSenderName(Object sender) {
+        return sender instanceof Player player ? player.getUsername() : "CONSOLE";
+    }
+
+    @Override
+    public boolean hasBypass(Object sender, String permission) {
+        return sender instanceof CommandSource source && source.hasPermission(permission);
+    }
+
     @Override
     public void execute(Invocation invocation) {
-        String[] args = invocation.arguments();
-        CommandSource sender = invocation.source();
+        ArgumentTokens tokens = ArgumentTokenizer.retokenizeTokens(invocation.arguments());
+        this.execute(invocation.source(), tokens != null ? tokens.toArray() : invocation.arguments(), tokens);
+    }
+
+    /**
+     * @param tokens the tokens the arguments were read from, or null if they were used as the platform split them
+     */
+    void execute(CommandSource sender, String[] args, @Nullable ArgumentTokens tokens) {
+        AnnotationCommand current = this.current();
+        if (current != this) {
+            current.execute(sender, args, tokens);
+            return;
+        }
 
         if (args.length < 1) {
             if (this.mainCommands.isEmpty()) {
@@ -51,8 +98,8 @@ public class AnnotationCommand implements AnnotationCommandImpl, SimpleCommand {
                 return;
             }
 
-            if (this.mainCommands.size() == 1) {
-                this.executeCommand(this.mainCommands.get(0), sender, args);
+            if (this.overloads.getMain() != null) {
+                this.executeCommand(this.overloads.getMain(), sender, args, tokens);
                 return;
             }
 
@@ -62,26 +109,49 @@ public class AnnotationCommand implements AnnotationCommandImpl, SimpleCommand {
 
         for (AnnotationSubCommand subCommand : subCommands) {
             if (!args[0].equalsIgnoreCase(subCommand.getName()) && !subCommand.getAliases().contains(args[0].toLowerCase())) continue;
-            this.executeCommand(subCommand, sender, args);
+            this.executeCommand(subCommand, sender, args, tokens);
             return;
         }
 
-        if (!this.mainCommands.isEmpty()) {
-            if (this.mainCommands.size() == 1) {
-                this.executeCommand(this.mainCommands.get(0), sender, args);
-                return;
-            }
-
-            this.formatUsage(sender);
+        if (this.overloads.getMain() != null) {
+            this.executeCommand(this.overloads.getMain(), sender, args, tokens);
             return;
         }
 
+        if (this.suggestSubcommands(sender, args[0])) return;
         this.formatUsage(sender);
     }
 
-    private void executeCommand(AnnotationSubCommand subCommand, CommandSource sender, String[] args) {
-        if (subCommand.getPermission() != null && !sender.hasPermission(subCommand.getPermission())) {
+    private boolean suggestSubcommands(CommandSource sender, String input) {
+        long[] visible = this.visible(sender);
+        List<String> suggestions = this.subcommandSuggester.suggest(input, subCommand -> this.visibility.isVisible(visible, subCommand));
+        if (suggestions.isEmpty()) return false;
+
+        sender.sendMessage(VelocityCommandLoader.getFormattingProvider().formatSuggestions(this.getCommandName(), suggestions));
+        return true;
+    }
+
+    long[] visible(CommandSource sender) {
+        return this.visibility.resolve(this.getSenderKey(sender), sender::hasPermission);
+    }
+
+    private void executeCommand(AnnotationSubCommand subCommand, CommandSource sender, String[] args, @Nullable ArgumentTokens tokens) {
+        AnnotationSubCommand selected = this.overloads.select(subCommand, sender);
+        CommandMetrics metrics = Metrics.getCommandMetrics();
+        long start = System.nanoTime();
+        if (selected == null) {
+            SenderException senderException = new SenderException();
+            metrics.recordOutcome(this.getCommandName(), subCommand.getName(), senderException, System.nanoTime() - start);
+            sender.sendMessage(VelocityCommandLoader.getFormattingProvider().formatError(senderException, senderException.getMessage()));
+            return;
+        }
+        subCommand = selected;
+
+        boolean permitted = subCommand.getPermission() == null || sender.hasPermission(subCommand.getPermission());
+        metrics.recordPhase(this.getCommandName(), subCommand.getName(), CommandPhase.PERMISSION, System.nanoTime() - start);
+        if (!permitted) {
             PermissionException permissionException = new PermissionException("You do not have permission to use this command.");
+            metrics.recordOutcome(this.getCommandName(), subCommand.getName(), permissionException, System.nanoTime() - start);
             sender.sendMessage(VelocityCommandLoader.getFormattingProvider().formatError(permissionException, permissionException.getMessage()));
             return;
         }
@@ -90,16 +160,22 @@ public class AnnotationCommand implements AnnotationCommandImpl, SimpleCommand {
         AnnotationCommandSender<CommandSource> commandSender = new AnnotationCommandSender<>(sender);
 
         try {
-            commandExecutor.execute(commandSender, args);
+            commandExecutor.execute(commandSender, args, tokens, 0);
+            metrics.recordOutcome(this.getCommandName(), subCommand.getName(), null, System.nanoTime() - start);
         } catch (CommandException commandException) {
+            metrics.recordOutcome(this.getCommandName(), subCommand.getName(), commandException, System.nanoTime() - start);
             if (commandException instanceof ArgumentException) {
                 this.formatUsage(sender);
             } else if (commandException instanceof PermissionException permissionException) {
                 sender.sendMessage(VelocityCommandLoader.getFormattingProvider().formatError(commandException, permissionException.getMessage()));
+            } else if (commandException instanceof SenderException senderException) {
+                sender.sendMessage(VelocityCommandLoader.getFormattingProvider().formatError(commandException, senderException.getMessage()));
             } else if (commandException instanceof ContextResolverException contextResolverException) {
                 sender.sendMessage(VelocityCommandLoader.getFormattingProvider().formatError(commandException, "A context resolver was not found for: " + contextResolverException.getMessage()));
             } else if (commandException instanceof ParameterException parameterException) {
                 sender.sendMessage(VelocityCommandLoader.getFormattingProvider().formatError(commandException, parameterException.getMessage()));
+            } else if (commandException instanceof CooldownException cooldownException) {
+                sender.sendMessage(VelocityCommandLoader.getFormattingProvider().formatCooldown(cooldownException));
             } else if (commandException instanceof ErrorException errorException) {
                 sender.sendMessage(VelocityCommandLoader.getFormattingProvider().formatError(commandException, "An error occurred while executing this subcommand: " + errorException.getMessage()));
             }
@@ -108,13 +184,43 @@ public class AnnotationCommand implements AnnotationCommandImpl, SimpleCommand {
 
     @Override
     public List<String> suggest(Invocation invocation) {
-        String[] args = invocation.arguments();
-        CommandSource sender = invocation.source();
+        return this.suggestAsync(invocation).join();
+    }
+
+    @Override
+    public CompletableFuture<List<String>> suggestAsync(Invocation invocation) {
+        return this.suggestAsync(invocation.source(), invocation.arguments());
+    }
+
+    CompletableFuture<List<String>> suggestAsync(CommandSource sender, String[] args) {
+        return this.suggestAsync(sender, String.join(" ", args));
+    }
+
+    /**
+     * Completes without blocking the calling thread, requests throttled by the completion coalescer complete once
+     * their interval has passed.
+     *
+     * @param arguments the raw input after the command label
+     */
+    CompletableFuture<List<String>> suggestAsync(CommandSource sender, String arguments) {
+        AnnotationCommand current = this.current();
+        if (current != this) return current.suggestAsync(sender, arguments);
+
+        long start = System.nanoTime();
+        String[] tokens = ArgumentTokenizer.tokenize(arguments).toCompletionArray(0);
+        String input = this.commandName + " " + arguments;
+        return VelocityCommandLoader.getCompletionCoalescer().complete(this.getSenderKey(sender), input, () -> ArgumentTokenizer.fitCompletions(arguments, this.complete(sender, tokens)))
+                .whenComplete((suggestions, throwable) -> Metrics.getCommandMetrics().recordCompletion(this.getCommandName(), System.nanoTime() - start));
+    }
+
+    private List<String> complete(CommandSource sender, String[] args) {
         List<String> options = new ArrayList<>();
         AnnotationCommandSender<CommandSource> commandSender = new AnnotationCommandSender<>(sender);
+        long[] visible = this.visible(sender);
 
         for (AnnotationSubCommand mainCommand : this.mainCommands) {
-            if (mainCommand.getPermission() == null || sender.hasPermission(mainCommand.getPermission())) {
+            if (this.overloads.select(mainCommand, sender) != mainCommand) continue;
+            if (this.visibility.isVisible(visible, mainCommand)) {
                 AnnotationCommandExecutor<CommandSource> mainCommandExecutor = new AnnotationCommandExecutor<>(mainCommand, this);
                 options.addAll(mainCommandExecutor.complete(commandSender, args));
             }
@@ -122,31 +228,23 @@ public class AnnotationCommand implements AnnotationCommandImpl, SimpleCommand {
 
         if (args.length == 1 && !this.subCommands.isEmpty()) {
             for (AnnotationSubCommand subCommand : this.subCommands) {
-                if (subCommand.getPermission() == null) {
-                    options.add(subCommand.getName());
-                    continue;
-                }
-
-                if (commandSender.getSender().hasPermission(subCommand.getPermission())) options.add(subCommand.getName());
+                if (this.overloads.select(subCommand, sender) != subCommand) continue;
+                if (this.visibility.isVisible(visible, subCommand)) options.add(subCommand.getName());
             }
 
             return StringUtils.copyPartialMatches(args[0], options, new ArrayList<>(options.size()));
         }
 
         for (AnnotationSubCommand subCommand : this.subCommands) {
+            if (this.overloads.select(subCommand, sender) != subCommand) continue;
             if (args.length < 1) {
-                if (subCommand.getPermission() == null) {
-                    options.add(subCommand.getName());
-                    continue;
-                }
-
-                if (commandSender.getSender().hasPermission(subCommand.getPermission())) options.add(subCommand.getName());
+                if (this.visibility.isVisible(visible, subCommand)) options.add(subCommand.getName());
                 continue;
             }
 
             if (!args[0].equalsIgnoreCase(subCommand.getName()) && !subCommand.getAliases().contains(args[0].toLowerCase())) continue;
             AnnotationCommandExecutor<CommandSource> subCommandExecutor = new AnnotationCommandExecutor<>(subCommand, this);
-            if (subCommand.getPermission() != null && !commandSender.getSender().hasPermission(subCommand.getPermission())) continue;
+            if (!this.visibility.isVisible(visible, subCommand)) continue;
             options.addAll(subCommandExecutor.complete(commandSender, args));
         }
 
@@ -155,35 +253,152 @@ public class AnnotationCommand implements AnnotationCommandImpl, SimpleCommand {
 
     @Override
     public boolean hasPermission(Invocation invocation) {
+        return this.hasPermission(invocation.source());
+    }
+
+    boolean hasPermission(CommandSource source) {
+        AnnotationCommand current = this.current();
+        if (current != this) return current.hasPermission(source);
+
         if (this.mainCommands.isEmpty()) {
             return true;
         }
 
-        return this.mainCommands.stream().anyMatch(cmd ->
-                cmd.getPermission() == null || invocation.source().hasPermission(cmd.getPermission()));
+        return this.visibility.anyMainVisible(this.visible(source));
     }
 
     public void register(CommandManager commandManager) {
+        long start = StartupProfiler.start();
+        CommandMeta meta = commandManager.metaBuilder(this.commandName)
+                .aliases(this.getAllAliases().toArray(new String[0]))
+                .build();
+
+        commandManager.register(meta, this);
+        this.commandManager = commandManager;
+        this.meta = meta;
+        this.brigadier = false;
+        this.track();
+        StartupProfiler.stop(this.getClass(), StartupPhase.REGISTRATION, start);
+    }
+
+    /**
+     * Registers this command as a {@link BrigadierCommand} with typed argument nodes instead of a {@link SimpleCommand}.
+     * Clients then parse and complete literals, numbers, booleans and enum constants locally, and the proxy only
+     * receives executions and suggestion requests for resolver-backed arguments.
+     */
+    public void registerBrigadier(CommandManager commandManager) {
+        long start = StartupProfiler.start();
+        BrigadierCommand brigadierCommand = new BrigadierCommand(new BrigadierCommandTree(this).build(this.getCommandName()));
+        CommandMeta meta = commandManager.metaBuilder(brigadierCommand)
+                .aliases(this.getAllAliases().toArray(new String[0]))
+                .build();
+
+        commandManager.register(meta, brigadierCommand);
+        this.commandManager = commandManager;
+        this.meta = meta;
+        this.brigadier = true;
+        this.track();
+        StartupProfiler.stop(this.getClass(), StartupPhase.REGISTRATION, start);
+    }
+
+    /**
+     * Removes this command and its aliases from the command manager it was registered with.
+     */
+    public void unregister() {
+        if (this.commandManager == null) return;
+
+        this.commandManager.unregister(this.meta);
+        VelocityCommandLoader.untrack(this);
+        HelpIndex.global().remove(this);
+        this.commandManager = null;
+        this.meta = null;
+    }
+
+    /**
+     * Hands this registration to another command, for example a new instance after a plugin module reload. The
+     * replacement is registered first in the same mode under its own name and aliases, which takes over the aliases it
+     * shares with this command, and only the aliases of this command that it does not have are unregistered after, so
+     * no label is ever unknown. Executions and suggestions that still reach this command are handed to the
+     * replacement through a shared {@link DispatchSlot}, so the dispatch path takes no locks.
+     *
+     * @throws IllegalStateException if the replacement could not be registered, this command then stays registered
+     */
+    public void replace(AnnotationCommand replacement) {
+        if (replacement == this) throw new IllegalArgumentException("A command cannot replace itself");
+
+        CommandManager commandManager = this.commandManager;
+        CommandMeta meta = this.meta;
+        if (commandManager == null) {
+            this.publish(replacement);
+            HelpIndex.global().remove(this);
+            return;
+        }
+
+        if (this.brigadier) replacement.registerBrigadier(commandManager);
+        else replacement.register(commandManager);
+        if (commandManager.getCommandMeta(replacement.commandName) != replacement.meta) {
+            throw new IllegalStateException("Unable to register the replacement of command " + this.commandName);
+        }
+
+        this.publish(replacement);
+        for (String alias : meta.getAliases()) {
+            if (commandManager.getCommandMeta(alias) == meta) commandManager.unregister(alias);
+        }
+        VelocityCommandLoader.untrack(this);
+        HelpIndex.global().remove(this);
+        this.commandManager = null;
+        this.meta = null;
+    }
+
+    /**
+     * @return the command that handles this registration, which is this command unless it was replaced
+     */
+    public AnnotationCommand current() {
+        DispatchSlot<AnnotationCommand> slot = this.slot;
+        return slot == null ? this : slot.get();
+    }
+
+    /**
+     * Shares the dispatch slot of this command with the replacement and points it there.
+     */
+    private void publish(AnnotationCommand replacement) {
+        DispatchSlot<AnnotationCommand> slot = this.slot != null ? this.slot : new DispatchSlot<>(this);
+        this.slot = slot;
+        replacement.slot = slot;
+        slot.set(replacement);
+    }
+
+    private void track() {
+        List<String> labels = new ArrayList<>(this.getAllAliases());
+        labels.add(this.commandName);
+        VelocityCommandLoader.track(this, labels);
+        HelpIndex.global().add(this, this.mainCommands, this.subCommands);
+    }
+
+    private List<String> getAllAliases() {
         List<String> allAliases = new ArrayList<>();
         for (AnnotationSubCommand mainCommand : this.mainCommands) {
             allAliases.addAll(mainCommand.getAliases());
         }
 
-        commandManager.register(commandName, this, allAliases.toArray(new String[0]));
+        return allAliases;
     }
 
     protected void formatUsage(CommandSource sender) {
         List<String> usageMessages = new ArrayList<>();
+        long[] visible = this.visible(sender);
 
         for (AnnotationSubCommand mainCommand : this.mainCommands) {
-            if (mainCommand.getPermission() == null || sender.hasPermission(mainCommand.getPermission())) {
+            if (this.overloads.select(mainCommand, sender) != mainCommand) continue;
+            if (this.visibility.isVisible(visible, mainCommand)) {
                 String usage = "/" + this.getCommandName() + mainCommand.getUsage() + " - " + mainCommand.getDescription();
                 usageMessages.add(usage);
             }
         }
 
         for (AnnotationSubCommand subCommand : this.subCommands) {
-            if (subCommand.getPermission() == null || sender.hasPermission(subCommand.getPermission())) {
+            if (this.overloads.select(subCommand, sender) != subCommand) continue;
+            if (this.visibility.isVisible(visible, subCommand)) {
                 String usage = "/" + this.getCommandName() + " " + subCommand.getName() + subCommand.getUsage() + " - " + subCommand.getDescription();
                 usageMessages.add(usage);
             }
@@ -0,0 +1,65 @@
+package com.jazzkuh.commandlib.velocity;
+
+import com.jazzkuh.commandlib.common.brigadier.BrigadierTree;
+import com.jazzkuh.commandlib.common.tokenizer.ArgumentTokenizer;
+import com.jazzkuh.commandlib.common.tokenizer.ArgumentTokens;
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import com.velocitypowered.api.command.CommandSource;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The Brigadier tree of an {@link AnnotationCommand}. Every node executes through the regular dispatch path, so
+ * usage messages and argument resolution match the {@code SimpleCommand} mode.
+ */
+final class BrigadierCommandTree extends BrigadierTree<CommandSource> {
+    private final AnnotationCommand command;
+
+    BrigadierCommandTree(AnnotationCommand command) {
+        super(command.mainCommands, command.subCommands, command.visibility, command.overloads);
+        this.command = command;
+    }
+
+    @Override
+    protected int execute(CommandContext<CommandSource> context) {
+        ArgumentTokens tokens = ArgumentTokenizer.tokenize(arguments(context.getInput()));
+        this.command.execute(context.getSource(), tokens.toArray(), tokens);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    @Override
+    protected CompletableFuture<Suggestions> suggest(CommandContext<CommandSource> context, SuggestionsBuilder builder) {
+        // completions are fitted to what follows the last space, which may lie inside a quoted argument
+        int offset = builder.getInput().lastIndexOf(' ') + 1;
+        SuggestionsBuilder tokenBuilder = offset > builder.getStart() ? builder.createOffset(offset) : builder;
+        return this.command.suggestAsync(context.getSource(), arguments(builder.getInput())).thenApply(suggestions -> {
+            for (String suggestion : suggestions) {
+                tokenBuilder.suggest(suggestion);
+            }
+            return tokenBuilder.build();
+        });
+    }
+
+    @Override
+    protected boolean hasPermission(CommandSource source) {
+        return this.command.hasPermission(source);
+    }
+
+    @Override
+    protected CommandSource sender(CommandSource source) {
+        return source;
+    }
+
+    @Override
+    protected long[] visible(CommandSource source) {
+        return this.command.visible(source);
+    }
+
+    private static String arguments(String input) {
+        int index = input.indexOf(' ');
+        return index == -1 ? "" : input.substring(index + 1);
+    }
+}
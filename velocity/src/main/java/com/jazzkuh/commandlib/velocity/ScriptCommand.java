@@ -0,0 +1,96 @@
+package com.jazzkuh.commandlib.velocity;
+
+import com.jazzkuh.commandlib.common.annotations.*;
+import com.jazzkuh.commandlib.common.exception.CommandException;
+import com.jazzkuh.commandlib.common.exception.ErrorException;
+import com.jazzkuh.commandlib.common.script.*;
+import com.jazzkuh.commandlib.common.tokenizer.ArgumentTokenizer;
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.proxy.ConsoleCommandSource;
+import com.velocitypowered.api.proxy.ProxyServer;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Console command that runs a file of commands through {@link CommandScriptRunner}. Library commands are dispatched
+ * straight to their executors, other commands go through the proxy command manager.
+ */
+@Command("runscript")
+public class ScriptCommand extends AnnotationCommand {
+    private final ProxyServer proxyServer;
+
+    public ScriptCommand(ProxyServer proxyServer) {
+        this.proxyServer = proxyServer;
+    }
+
+    @Main
+    @Permission("commandlibrary.script")
+    @Usage("<file> [--dry-run] [--continue-on-error] [--progress=<lines>]")
+    @Description("Runs every command in a script file")
+    public void run(ConsoleCommandSource sender, String file, @Optional @Greedy String flags) {
+        ScriptOptions options;
+        try {
+            options = ScriptOptions.parse(flags);
+        } catch (IllegalArgumentException exception) {
+            sender.sendMessage(Component.text(exception.getMessage(), TextColor.fromHexString("#FF6B6B")));
+            return;
+        }
+
+        CommandScriptRunner runner = new CommandScriptRunner(label -> this.plan(sender, label));
+        ScriptListener listener = new ScriptListener() {
+            @Override
+            public void progress(int line, long bytesRead, long totalBytes) {
+                sender.sendMessage(Component.text("Processed " + line + " lines (" + (totalBytes == 0 ? 100 : bytesRead * 100 / totalBytes) + "%)", TextColor.fromHexString("#FBFB00")));
+            }
+
+            @Override
+            public void error(int line, String command, CommandException exception) {
+                sender.sendMessage(VelocityCommandLoader.getFormattingProvider().formatError(exception, "Line " + line + " (" + command + "): " + CommandScriptRunner.describe(exception)));
+            }
+
+            @Override
+            public void unverifiable(int line, String command) {
+                sender.sendMessage(Component.text("Line " + line + " (" + command + "): not a library command, unverifiable", TextColor.fromHexString("#FBFB00")));
+            }
+        };
+
+        try {
+            ScriptResult result = runner.run(Path.of(file), options, listener);
+            sender.sendMessage(Component.text((options.dryRun() ? "Validated " : "Executed ") + result.commands() + " commands with " + result.failures() + " failures"
+                    + (result.unverifiable() > 0 ? " and " + result.unverifiable() + " unverifiable" : "") + " in "
+                    + TimeUnit.NANOSECONDS.toMillis(result.nanos()) + "ms" + (result.aborted() ? ", aborted on the first failure." : "."), TextColor.fromHexString("#FBFB00")));
+        } catch (IOException exception) {
+            sender.sendMessage(Component.text("Unable to read script " + file + ": " + exception.getMessage(), TextColor.fromHexString("#FF6B6B")));
+        }
+    }
+
+    private ScriptPlan plan(ConsoleCommandSource sender, String label) {
+        AnnotationCommand registered = VelocityCommandLoader.getCommand(label);
+        if (registered != null) {
+            AnnotationCommand command = registered.current();
+            return new AnnotationScriptPlan<CommandSource>(command, command.mainCommands, command.subCommands, sender, sender::hasPermission);
+        }
+
+        if (!this.proxyServer.getCommandManager().hasCommand(label)) return null;
+        return new ScriptPlan() {
+            @Override
+            public boolean isVerifiable() {
+                return false;
+            }
+
+            @Override
+            public void validate(String[] args) {
+            }
+
+            @Override
+            public void execute(String[] args) throws CommandException {
+                boolean executed = proxyServer.getCommandManager().executeAsync(sender, String.join(" ", label, ArgumentTokenizer.join(args)).trim()).join();
+                if (!executed) throw new ErrorException("Command returned false");
+            }
+        };
+    }
+}
@@ -1,11 +1,89 @@
 package com.jazzkuh.commandlib.velocity;
 
 import com.jazzkuh.commandlib.common.chat.FormattingProvider;
+import com.jazzkuh.commandlib.common.completion.CompletionCoalescer;
+import com.jazzkuh.commandlib.common.metrics.StartupProfiler;
+import com.jazzkuh.commandlib.common.registry.CommandIndex;
+import com.jazzkuh.commandlib.common.registry.CommandRegistry;
+import com.jazzkuh.commandlib.common.registry.MetadataCache;
+import com.velocitypowered.api.command.CommandManager;
+import com.velocitypowered.api.event.EventManager;
 import lombok.Getter;
 import lombok.Setter;
+import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class VelocityCommandLoader {
+    private static final ComponentLogger LOGGER = ComponentLogger.logger("CommandLibrary");
+
     @Getter
     @Setter
     private static FormattingProvider formattingProvider;
+
+    @Getter
+    @Setter
+    private static boolean brigadier = false;
+
+    @Getter
+    @Setter
+    private static CompletionCoalescer completionCoalescer = new CompletionCoalescer();
+
+    private static final Map<String, AnnotationCommand> COMMANDS = new ConcurrentHashMap<>();
+
+    public static List<AnnotationCommand> registerAll(CommandManager commandManager, Object plugin) {
+        return registerClasses(commandManager, CommandIndex.load(plugin.getClass().getClassLoader()));
+    }
+
+    public static List<AnnotationCommand> registerAll(CommandManager commandManager, Object plugin, String packageName) {
+        return registerClasses(commandManager, CommandIndex.scan(plugin.getClass().getClassLoader(), packageName));
+    }
+
+    private static List<AnnotationCommand> registerClasses(CommandManager commandManager, List<Class<?>> commandClasses) {
+        List<AnnotationCommand> commands = CommandRegistry.instantiate(commandClasses, AnnotationCommand.class);
+        registerAll(commandManager, commands);
+        return commands;
+    }
+
+    /**
+     * Returns the library command registered under the given name or alias. Velocity does not expose registered
+     * command instances, so the loader keeps track of them itself.
+     */
+    @Nullable
+    public static AnnotationCommand getCommand(String label) {
+        return COMMANDS.get(label.toLowerCase());
+    }
+
+    /**
+     * Keeps the cached command visibility of players in sync, by dropping it when their permissions are set up, when
+     * they connect to a server and the command tree is sent again, and when they disconnect.
+     */
+    public static void registerListeners(Object plugin, EventManager eventManager) {
+        eventManager.register(plugin, new VisibilityListener());
+    }
+
+    static void track(AnnotationCommand command, List<String> labels) {
+        for (String label : labels) {
+            COMMANDS.put(label.toLowerCase(), command);
+        }
+    }
+
+    static void untrack(AnnotationCommand command) {
+        COMMANDS.values().removeIf(tracked -> tracked == command);
+    }
+
+    public static void registerAll(CommandManager commandManager, Collection<? extends AnnotationCommand> commands) {
+        for (AnnotationCommand command : commands) {
+            if (brigadier) command.registerBrigadier(commandManager);
+            else command.register(commandManager);
+        }
+
+        MetadataCache.flush();
+
+        if (StartupProfiler.isEnabled()) StartupProfiler.report().format().forEach(LOGGER::info);
+    }
 }
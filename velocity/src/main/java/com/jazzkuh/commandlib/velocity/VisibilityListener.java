@@ -0,0 +1,31 @@
+package com.jazzkuh.commandlib.velocity;
+
+import com.jazzkuh.commandlib.common.permission.CommandVisibility;
+import com.jazzkuh.commandlib.common.ratelimit.RateLimits;
+import com.velocitypowered.api.event.PostOrder;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.permission.PermissionsSetupEvent;
+import com.velocitypowered.api.event.player.ServerConnectedEvent;
+import com.velocitypowered.api.proxy.Player;
+
+final class VisibilityListener {
+    @Subscribe(order = PostOrder.LAST)
+    public void onPermissionsSetup(PermissionsSetupEvent event) {
+        if (event.getSubject() instanceof Player player) forget(player);
+    }
+
+    @Subscribe(order = PostOrder.FIRST)
+    public void onServerConnected(ServerConnectedEvent event) {
+        forget(event.getPlayer());
+    }
+
+    @Subscribe(order = PostOrder.LAST)
+    public void onDisconnect(DisconnectEvent event) {
+        forget(event.getPlayer());
+    }
+
+    private static void forget(Player player) {
+        CommandVisibility.forget(RateLimits.key(player.getUniqueId()));
+    }
+}